@@ -0,0 +1,283 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+// Ponte entre os benchmarks e o motor. O JMH não aceita benchmarks no pacote padrão e um pacote
+// nomeado não enxerga as classes do motor, então cada operação medida é exposta aqui como um
+// IntSupplier, que EngineBenchmark instancia por reflexão e chama diretamente.
+public final class EngineOperations {
+    static final long SEED = 20240501L;
+    static final int DEALS = 64; // Mãos diferentes usadas em rodízio
+
+    private EngineOperations() {
+    }
+
+    // Mãos dos quatro jogadores em cada uma das distribuições (duplo-seis)
+    static long[][][] deals() {
+        HeadlessSimulator simulator = new HeadlessSimulator();
+        long[][][] deals = new long[DEALS][HeadlessSimulator.PLAYERS][];
+        for (int deal = 0; deal < DEALS; deal++) {
+            simulator.deal(HeadlessSimulator.gameSeed(SEED, deal));
+            for (int seat = 0; seat < HeadlessSimulator.PLAYERS; seat++) {
+                deals[deal][seat] = simulator.getState().getHand(seat);
+            }
+        }
+        return deals;
+    }
+
+    static List<DominoTile> tiles(long[] hand) {
+        List<DominoTile> tiles = new ArrayList<>();
+        for (int tile = TileSet.next(hand, 0); tile >= 0; tile = TileSet.next(hand, tile + 1)) {
+            tiles.add(DominoTile.byOrdinal(tile));
+        }
+        return tiles;
+    }
+
+    static List<Player> seat(long[][] hands) {
+        List<Player> players = new ArrayList<>();
+        for (int seat = 0; seat < hands.length; seat++) {
+            Player player = new Player("Jogador " + (seat + 1));
+            player.setDominoes(tiles(hands[seat]));
+            players.add(player);
+        }
+        return players;
+    }
+
+    // Joga uma pedra por chamada, alternando as pontas; a cada mão esgotada a mesa recomeça
+    public static final class PlayTile implements IntSupplier {
+        private final DominoGame game = new DominoGame();
+        private final long[][][] deals = deals();
+        private final TableLine table = new TableLine();
+        private Player player;
+        private int deal;
+        private boolean left;
+
+        @Override
+        public int getAsInt() {
+            if (player == null || player.getDominoes().isEmpty()) {
+                table.clear();
+                player = new Player("Jogador 1");
+                player.setDominoes(tiles(deals[deal++ % DEALS][0]));
+            }
+            left = !left;
+            game.playTileOnTable(player.getDominoes().get(0), left, table, player);
+            return table.size();
+        }
+    }
+
+    // Cálculo e impressão das pedras possíveis no início da partida, com cada adversário sem um número.
+    // As candidatas já vêm mantidas pela partida, como no jogo ao vivo
+    public static final class PossibleTiles implements IntSupplier {
+        private final DominoGame game = new DominoGame();
+        private final List<LiveGame> games = new ArrayList<>();
+        private int deal;
+
+        public PossibleTiles() {
+            for (long[][] hands : deals()) {
+                List<Player> players = new ArrayList<>();
+                for (int seat = 0; seat < hands.length; seat++) {
+                    players.add(new Player("Jogador " + (seat + 1)));
+                }
+                players.get(0).setDominoes(tiles(hands[0]));
+                for (int seat = 1; seat < players.size(); seat++) {
+                    players.get(seat).addToNotPossibleTiles(TileSet.withPip(DominoSet.DOUBLE_SIX.maxPip - seat));
+                }
+                games.add(new LiveGame(DominoSet.DOUBLE_SIX, players, 0, 0));
+            }
+        }
+
+        @Override
+        public int getAsInt() {
+            game.seatGame(games.get(deal++ % DEALS));
+            game.calculatePossibleTilesForPlayers();
+            return games.size();
+        }
+    }
+
+    public static final class RemoveTiles implements IntSupplier {
+        private final Player player = new Player("Jogador 1");
+        private int number;
+
+        @Override
+        public int getAsInt() {
+            LiveGame.removeTilesWithNumber(player, number);
+            number = number == DominoSet.DOUBLE_SIX.maxPip ? 0 : number + 1;
+            return (int) player.getNotPossibleTiles()[0];
+        }
+    }
+
+    public static final class FindPlayable implements IntSupplier {
+        private final DominoGame game = new DominoGame();
+        private final List<List<DominoTile>> hands = new ArrayList<>();
+        private int index;
+
+        public FindPlayable() {
+            for (long[][] deal : deals()) {
+                hands.add(tiles(deal[0]));
+            }
+        }
+
+        @Override
+        public int getAsInt() {
+            int i = index++;
+            // Pontas em rodízio, incluindo a mesa vazia (-1)
+            int end1 = i % (DominoSet.DOUBLE_SIX.maxPip + 2) - 1;
+            int end2 = (i / 3) % (DominoSet.DOUBLE_SIX.maxPip + 1);
+            return game.findPlayableTile(hands.get(i % DEALS), end1, end2)
+                    .map(DominoTile::ordinal)
+                    .orElse(-1);
+        }
+    }
+
+    // Partida completa de simulateGame (saída descartada pelo benchmark), sem jogador perfeito
+    public static class SimulateGame implements IntSupplier {
+        private final DominoGame game = new DominoGame();
+        private final long[][][] deals = deals();
+        private final int perfectPlayerIndex;
+        private int deal;
+
+        public SimulateGame() {
+            this(-1);
+        }
+
+        SimulateGame(int perfectPlayerIndex) {
+            this.perfectPlayerIndex = perfectPlayerIndex;
+        }
+
+        @Override
+        public int getAsInt() {
+            List<Player> players = seat(deals[deal++ % DEALS]);
+            game.simulateGame(players, perfectPlayerIndex);
+            return players.get(0).getPlayCount();
+        }
+    }
+
+    // O jogador 1 usa o solucionador de finais
+    public static final class SimulateGamePerfect extends SimulateGame {
+        public SimulateGamePerfect() {
+            super(0);
+        }
+    }
+
+    // Referência: a mesma política de jogo no simulador sem console
+    public static class HeadlessGame implements IntSupplier {
+        private final HeadlessSimulator simulator;
+        private long game;
+
+        public HeadlessGame() {
+            this(DominoSet.DOUBLE_SIX);
+        }
+
+        HeadlessGame(DominoSet set) {
+            simulator = new HeadlessSimulator(set);
+        }
+
+        @Override
+        public int getAsInt() {
+            simulator.deal(HeadlessSimulator.gameSeed(SEED, game++));
+            simulator.getState().reset(0);
+            return simulator.playOut(simulator.getState());
+        }
+    }
+
+    public static final class HeadlessGameDoubleNine extends HeadlessGame {
+        public HeadlessGameDoubleNine() {
+            super(DominoSet.DOUBLE_NINE);
+        }
+    }
+
+    public static final class HeadlessGameDoubleTwelve extends HeadlessGame {
+        public HeadlessGameDoubleTwelve() {
+            super(DominoSet.DOUBLE_TWELVE);
+        }
+    }
+
+    // Probabilidades exatas (sem impressão) nas posições de partidas simuladas vistas pelo jogador 1:
+    // passes e jogadas já apertaram o que cada adversário pode ter
+    public static class Probabilities implements IntSupplier {
+        private final TileProbabilities calculator = new TileProbabilities();
+        private final List<long[]> unseen = new ArrayList<>();
+        private final List<long[][]> allowed = new ArrayList<>();
+        private final List<int[]> sizes = new ArrayList<>();
+        private int position;
+
+        public Probabilities() {
+            this(DominoSet.DOUBLE_SIX);
+        }
+
+        Probabilities(DominoSet set) {
+            HeadlessSimulator simulator = new HeadlessSimulator(set);
+            GameState state = simulator.getState();
+            for (int deal = 0; deal < DEALS; deal++) {
+                simulator.deal(HeadlessSimulator.gameSeed(SEED, deal));
+                List<Player> players = new ArrayList<>();
+                for (int seat = 0; seat < HeadlessSimulator.PLAYERS; seat++) {
+                    players.add(new Player("Jogador " + (seat + 1)));
+                }
+                players.get(0).setDominoes(tiles(state.getHand(0)));
+                state.reset(deal % HeadlessSimulator.PLAYERS);
+                LiveGame live = new LiveGame(set, players, 0, deal % HeadlessSimulator.PLAYERS);
+                while (!live.isOver()) {
+                    unseen.add(TileSet.copy(live.getUnseen()));
+                    // A partida reaproveita suas candidatas a cada jogada: guarda cópias
+                    long[][] possible = live.opponentPossibleTiles();
+                    long[][] copy = new long[possible.length][];
+                    for (int p = 0; p < possible.length; p++) {
+                        copy[p] = TileSet.copy(possible[p]);
+                    }
+                    allowed.add(copy);
+                    sizes.add(live.opponentHandSizes().clone());
+                    int move = HeadlessSimulator.firstFitMove(state, state.turn());
+                    state.apply(move);
+                    if (move == GameState.PASS) {
+                        live.pass();
+                    } else {
+                        live.play(DominoTile.byOrdinal(GameState.tileOf(move)),
+                                GameState.isRight(move) ? LiveGame.Side.RIGHT : LiveGame.Side.LEFT);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public int getAsInt() {
+            int i = position++ % unseen.size();
+            double[][] result = calculator.compute(unseen.get(i), allowed.get(i), sizes.get(i));
+            return result == null ? 0 : result.length;
+        }
+    }
+
+    public static final class ProbabilitiesDoubleNine extends Probabilities {
+        public ProbabilitiesDoubleNine() {
+            super(DominoSet.DOUBLE_NINE);
+        }
+    }
+
+    public static final class ProbabilitiesDoubleTwelve extends Probabilities {
+        public ProbabilitiesDoubleTwelve() {
+            super(DominoSet.DOUBLE_TWELVE);
+        }
+    }
+
+    // Uma distribuição do torneio padrão: as quatro estratégias em todas as 24 ordens de assento
+    public static final class TournamentDeal implements IntSupplier {
+        private final Strategy[] strategies = new Strategy[Strategy.NAMES.length];
+        private final Tournament.Table table;
+        private final Tournament.Standings standings;
+        private long deal;
+
+        public TournamentDeal() {
+            for (int i = 0; i < strategies.length; i++) {
+                strategies[i] = Strategy.byName(Strategy.NAMES[i]);
+            }
+            table = new Tournament.Table(DominoSet.DOUBLE_SIX, strategies, Tournament.seatings(strategies.length));
+            standings = new Tournament.Standings(strategies);
+        }
+
+        @Override
+        public int getAsInt() {
+            table.run(SEED, deal++, 1, standings);
+            return (int) standings.getGames();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package botmino.bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Caminhos quentes do motor. Rodar com:
+//   mvn -B package && java -jar benchmarks/target/benchmarks.jar -prof gc
+// As operações vêm de EngineOperations (pacote padrão), carregadas por reflexão só no @Setup.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark {
+    private IntSupplier playTile;
+    private IntSupplier possibleTiles;
+    private IntSupplier removeTiles;
+    private IntSupplier findPlayable;
+    private IntSupplier simulateGame;
+    private IntSupplier simulateGamePerfect;
+    private IntSupplier headlessGame;
+    private IntSupplier headlessGameDoubleNine;
+    private IntSupplier headlessGameDoubleTwelve;
+    private IntSupplier probabilities;
+    private IntSupplier probabilitiesDoubleNine;
+    private IntSupplier probabilitiesDoubleTwelve;
+    private IntSupplier tournamentDeal;
+    private PrintStream console;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        // simulateGame e calculatePossibleTilesForPlayers imprimem a cada jogada; a formatação
+        // continua sendo medida, só a escrita no terminal é descartada
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        playTile = load("PlayTile");
+        possibleTiles = load("PossibleTiles");
+        removeTiles = load("RemoveTiles");
+        findPlayable = load("FindPlayable");
+        simulateGame = load("SimulateGame");
+        simulateGamePerfect = load("SimulateGamePerfect");
+        headlessGame = load("HeadlessGame");
+        headlessGameDoubleNine = load("HeadlessGameDoubleNine");
+        headlessGameDoubleTwelve = load("HeadlessGameDoubleTwelve");
+        probabilities = load("Probabilities");
+        probabilitiesDoubleNine = load("ProbabilitiesDoubleNine");
+        probabilitiesDoubleTwelve = load("ProbabilitiesDoubleTwelve");
+        tournamentDeal = load("TournamentDeal");
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(console);
+    }
+
+    private static IntSupplier load(String operation) throws ReflectiveOperationException {
+        return (IntSupplier) Class.forName("EngineOperations$" + operation).getConstructor().newInstance();
+    }
+
+    @Benchmark
+    public int playTileOnTable() {
+        return playTile.getAsInt();
+    }
+
+    @Benchmark
+    public int calculatePossibleTilesForPlayers() {
+        return possibleTiles.getAsInt();
+    }
+
+    @Benchmark
+    public int removeTilesWithNumber() {
+        return removeTiles.getAsInt();
+    }
+
+    @Benchmark
+    public int findPlayableTile() {
+        return findPlayable.getAsInt();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int simulateGame() {
+        return simulateGame.getAsInt();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int simulateGamePerfectEndgame() {
+        return simulateGamePerfect.getAsInt();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int headlessGame() {
+        return headlessGame.getAsInt();
+    }
+
+    // Os mesmos caminhos nos conjuntos maiores, com máscaras de duas palavras
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int headlessGameDoubleNine() {
+        return headlessGameDoubleNine.getAsInt();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int headlessGameDoubleTwelve() {
+        return headlessGameDoubleTwelve.getAsInt();
+    }
+
+    @Benchmark
+    public int tileProbabilities() {
+        return probabilities.getAsInt();
+    }
+
+    @Benchmark
+    public int tileProbabilitiesDoubleNine() {
+        return probabilitiesDoubleNine.getAsInt();
+    }
+
+    @Benchmark
+    public int tileProbabilitiesDoubleTwelve() {
+        return probabilitiesDoubleTwelve.getAsInt();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int tournamentDeal() {
+        return tournamentDeal.getAsInt();
+    }
+}
@@ -0,0 +1,139 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+// Traço binário compacto: o cabeçalho MAGIC e VERSION, depois um byte por evento
+//   bits 5-7 tipo, bits 3-4 resultado do solucionador (0 nenhum, 1 derrota, 2 empate, 3 vitória),
+//   bit 2 ponta direita (jogada) ou empate (jogo fechado), bits 0-1 jogador
+// seguido, na jogada, do ordinal da pedra e, no início, do maior número do conjunto. Os nomes não
+// entram no traço; replay os reapresenta como "Jogador N". Uma partida inteira cabe em uns 60 bytes.
+final class BinaryTraceEvents extends BufferedGameEvents {
+    static final int MAGIC = 0x424D5452; // "BMTR"
+    static final int VERSION = 1;
+
+    private static final int STARTED = 0;
+    private static final int PLAYED = 1;
+    private static final int PASSED = 2;
+    private static final int UNDONE = 3;
+    private static final int WON = 4;
+    private static final int BLOCKED = 5;
+    private static final int FLAG = 1 << 2;
+
+    BinaryTraceEvents(Path file) throws IOException {
+        super(new EventWriter(header(new BufferedOutputStream(Files.newOutputStream(file))), true), true);
+    }
+
+    private BinaryTraceEvents(EventWriter writer) {
+        super(writer, false);
+    }
+
+    private static OutputStream header(OutputStream out) throws IOException {
+        out.write(MAGIC >>> 24);
+        out.write(MAGIC >>> 16);
+        out.write(MAGIC >>> 8);
+        out.write(MAGIC);
+        out.write(VERSION);
+        return out;
+    }
+
+    @Override
+    public GameEvents fork() {
+        return new BinaryTraceEvents(writer);
+    }
+
+    @Override
+    public void gameStarted(DominoSet set, List<String> names) {
+        put(STARTED << 5);
+        put(set.maxPip);
+    }
+
+    @Override
+    public void played(int seat, int tile, boolean right, int solved) {
+        int outcome = solved == NOT_SOLVED ? 0 : solved - EndgameSolver.LOSS + 1;
+        put(PLAYED << 5 | outcome << 3 | (right ? FLAG : 0) | seat);
+        put(tile);
+    }
+
+    @Override
+    public void passed(int seat) {
+        put(PASSED << 5 | seat);
+    }
+
+    @Override
+    public void undone() {
+        put(UNDONE << 5);
+    }
+
+    @Override
+    public void won(int seat) {
+        put(WON << 5 | seat);
+        gameEnded();
+    }
+
+    @Override
+    public void blocked(int winner) {
+        put(BLOCKED << 5 | (winner == GameState.NO_WINNER ? FLAG : winner));
+        gameEnded();
+    }
+
+    // Reemite um traço gravado em target (por exemplo, ConsoleEvents para ler, JsonLinesEvents para converter)
+    static void replay(Path file, GameEvents target) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readUnsignedByte() != VERSION) {
+                throw new IOException("Traço inválido: " + file);
+            }
+            int event;
+            while ((event = in.read()) >= 0) {
+                int seat = event & 3;
+                switch (event >>> 5) {
+                    case STARTED:
+                        target.gameStarted(setWithMaxPip(next(in)), HeadlessSimulator.NAMES);
+                        break;
+                    case PLAYED:
+                        int outcome = event >>> 3 & 3;
+                        target.played(seat, next(in), (event & FLAG) != 0,
+                                outcome == 0 ? NOT_SOLVED : outcome - 1 + EndgameSolver.LOSS);
+                        break;
+                    case PASSED:
+                        target.passed(seat);
+                        break;
+                    case UNDONE:
+                        target.undone();
+                        break;
+                    case WON:
+                        target.won(seat);
+                        break;
+                    case BLOCKED:
+                        target.blocked((event & FLAG) != 0 ? GameState.NO_WINNER : seat);
+                        break;
+                    default:
+                        throw new IOException("Evento desconhecido no traço: " + event);
+                }
+            }
+        }
+        target.flush();
+    }
+
+    private static int next(InputStream in) throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException("Traço truncado");
+        }
+        return b;
+    }
+
+    private static DominoSet setWithMaxPip(int maxPip) throws IOException {
+        DominoSet set = DominoSet.byMaxPip(maxPip);
+        if (set == null) {
+            throw new IOException("Conjunto desconhecido no traço: " + maxPip);
+        }
+        return set;
+    }
+}
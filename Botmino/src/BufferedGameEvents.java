@@ -0,0 +1,109 @@
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Future;
+
+// Base dos formatos que escrevem bytes: cada evento é codificado num buffer, e no fim de uma partida,
+// se o buffer passou de BATCH_BYTES, ele vai inteiro para o EventWriter enquanto as próximas partidas
+// usam o outro buffer (se o escritor ainda não terminou o lote anterior, espera por ele).
+abstract class BufferedGameEvents implements GameEvents {
+    static final int BATCH_BYTES = 1 << 16;
+
+    // Texto de cada pedra ("3/4"), pelo ordinal
+    static final byte[][] TILE_TEXT = new byte[TileSet.TILE_COUNT][];
+
+    static {
+        for (int tile = 0; tile < TILE_TEXT.length; tile++) {
+            TILE_TEXT[tile] = utf8(DominoTile.byOrdinal(tile).toString());
+        }
+    }
+
+    final EventWriter writer;
+    private final boolean owner; // Só quem criou o escritor o fecha
+    private byte[] buffer = new byte[2 * BATCH_BYTES];
+    private byte[] spare = new byte[2 * BATCH_BYTES];
+    private int length;
+    private Future<?> pending; // Escrita em andamento do buffer spare
+
+    BufferedGameEvents(EventWriter writer, boolean owner) {
+        this.writer = writer;
+        this.owner = owner;
+    }
+
+    // Chamado pelos formatos no fim de cada partida: só aqui um lote pode sair
+    final void gameEnded() {
+        if (length >= BATCH_BYTES) {
+            submit();
+        }
+    }
+
+    private void submit() {
+        if (length == 0) {
+            return;
+        }
+        if (pending != null) {
+            EventWriter.await(pending);
+        }
+        pending = writer.write(buffer, length);
+        byte[] swap = buffer;
+        buffer = spare;
+        spare = swap;
+        length = 0;
+    }
+
+    @Override
+    public void flush() {
+        submit();
+        if (pending != null) {
+            EventWriter.await(pending);
+            pending = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        if (owner) {
+            writer.close();
+        }
+    }
+
+    final void put(int b) {
+        if (length == buffer.length) {
+            grow(1);
+        }
+        buffer[length++] = (byte) b;
+    }
+
+    final void put(byte[] bytes) {
+        if (length + bytes.length > buffer.length) {
+            grow(bytes.length);
+        }
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    // Número decimal, sem criar texto
+    final void putNumber(long value) {
+        if (value < 0) {
+            put('-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            put((int) ('0' + value / divisor % 10));
+        }
+    }
+
+    // Uma partida maior que o buffer (só com muitos desfazer) não pode ser cortada ao meio
+    private void grow(int needed) {
+        byte[] larger = new byte[Math.max(buffer.length * 2, length + needed)];
+        System.arraycopy(buffer, 0, larger, 0, length);
+        buffer = larger;
+    }
+
+    static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,168 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// Ponto de retomada da partida ao vivo, regravado depois de cada jogada. Guarda só o que não se deduz:
+// conjunto, jogadores e pontuações, coelhos e gatos, a mão do principal, quem começou e as jogadas (um
+// byte cada). Mesa, pontas, históricos e pedras impossíveis saem de reaplicar as jogadas no LiveGame.
+// Layout: MAGIC, VERSION, maior número do conjunto, principal, quem começou, nº de jogadores, e por
+// jogador nome (writeUTF) e vitórias (short); coelhos e gatos (int); a mão (nº e ordinais); as jogadas
+// (short com o nº e um byte por jogada: PASS ou ordinal | RIGHT); CRC32 de tudo antes dele.
+// Grava num temporário, força para o disco e renomeia por cima: uma queda no meio deixa o anterior.
+final class Checkpoint {
+    private static final int MAGIC = 0x444F4D43; // "DOMC"
+    private static final int VERSION = 1;
+    private static final int PASS = 0xFF;
+    private static final int RIGHT = 0x80; // Ponta escolhida, usada só quando a pedra encaixa nas duas
+
+    final Transcript transcript = new Transcript(); // Cabeçalho da partida, sem jogadas nem resultado
+    final int[] scores;
+    final int rabbitPoints;
+    final int catPoints;
+    private final byte[] moves;
+
+    private Checkpoint(int[] scores, int rabbitPoints, int catPoints, byte[] moves) {
+        this.scores = scores;
+        this.rabbitPoints = rabbitPoints;
+        this.catPoints = catPoints;
+        this.moves = moves;
+    }
+
+    static void save(Path file, Transcript header, LiveGame game, int[] scores, int rabbitPoints, int catPoints)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(header.set.maxPip);
+        out.writeByte(header.principal);
+        out.writeByte(header.starter);
+        out.writeByte(header.players.size());
+        for (int i = 0; i < header.players.size(); i++) {
+            out.writeUTF(header.players.get(i));
+            out.writeShort(scores[i]);
+        }
+        out.writeInt(rabbitPoints);
+        out.writeInt(catPoints);
+        out.writeByte(header.hand.size());
+        for (DominoTile tile : header.hand) {
+            out.writeByte(tile.ordinal());
+        }
+        List<LiveGame.Event> events = game.getEvents();
+        int count = 0;
+        for (LiveGame.Event event : events) {
+            if (event.type != LiveGame.EventType.SIDE_CHOSEN) count++;
+        }
+        out.writeShort(count);
+        for (LiveGame.Event event : events) {
+            if (event.type == LiveGame.EventType.PASSED) {
+                out.writeByte(PASS);
+            } else if (event.type == LiveGame.EventType.PLAYED) {
+                out.writeByte(event.tile.ordinal() | (event.left ? 0 : RIGHT));
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // null se não há ponto salvo; IOException se ele estiver corrompido ou for de outra versão
+    static Checkpoint load(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        byte[] data = Files.readAllBytes(file);
+        if (data.length < 8) {
+            throw new IOException("ponto de retomada truncado");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length - 4);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        if (ByteBuffer.wrap(data, data.length - 4, 4).getInt() != (int) crc.getValue()
+                || in.readInt() != MAGIC || in.readUnsignedByte() != VERSION) {
+            throw new IOException("ponto de retomada corrompido");
+        }
+        DominoSet set = DominoSet.byMaxPip(in.readUnsignedByte());
+        if (set == null) {
+            throw new IOException("conjunto desconhecido no ponto de retomada");
+        }
+        int principal = in.readUnsignedByte();
+        int starter = in.readUnsignedByte();
+        int playerCount = in.readUnsignedByte();
+        List<String> names = new ArrayList<>();
+        int[] scores = new int[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+            names.add(in.readUTF());
+            scores[i] = in.readShort();
+        }
+        int rabbitPoints = in.readInt();
+        int catPoints = in.readInt();
+        List<DominoTile> hand = new ArrayList<>();
+        for (int i = in.readUnsignedByte(); i > 0; i--) {
+            hand.add(DominoTile.byOrdinal(in.readUnsignedByte()));
+        }
+        byte[] moves = new byte[in.readUnsignedShort()];
+        in.readFully(moves);
+        Checkpoint checkpoint = new Checkpoint(scores, rabbitPoints, catPoints, moves);
+        Transcript header = checkpoint.transcript;
+        header.set = set;
+        header.players.addAll(names);
+        header.principal = principal;
+        header.starter = starter;
+        header.hand.addAll(hand);
+        try {
+            header.validate();
+        } catch (IllegalArgumentException e) {
+            throw new IOException("ponto de retomada inválido: " + e.getMessage());
+        }
+        return checkpoint;
+    }
+
+    int moveCount() {
+        return moves.length;
+    }
+
+    // Reaplica as jogadas; players já tem os nomes do cabeçalho e a mão do principal
+    LiveGame replay(List<Player> players) throws IOException {
+        LiveGame game = new LiveGame(transcript.set, players, transcript.principal, transcript.starter);
+        for (byte move : moves) {
+            int code = move & 0xFF;
+            LiveGame.Outcome outcome;
+            if (code == PASS) {
+                outcome = game.pass();
+            } else {
+                DominoTile tile = DominoTile.byOrdinal(code & ~RIGHT);
+                outcome = game.play(tile, LiveGame.Side.ANY);
+                if (outcome == LiveGame.Outcome.NEEDS_SIDE) {
+                    outcome = game.play(tile, (code & RIGHT) != 0 ? LiveGame.Side.RIGHT : LiveGame.Side.LEFT);
+                }
+            }
+            if (outcome != LiveGame.Outcome.PLAYED && outcome != LiveGame.Outcome.PASSED) {
+                throw new IOException("jogada inválida no ponto de retomada");
+            }
+        }
+        return game;
+    }
+}
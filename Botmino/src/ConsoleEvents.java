@@ -0,0 +1,136 @@
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.util.List;
+
+// O texto que simulateGame sempre mostrou ("Fulano jogou: 3/4", "Fulano passou a vez.", ...), montado
+// byte a byte a partir de nomes e frases já codificados no charset do console
+final class ConsoleEvents extends BufferedGameEvents {
+    // Frases fixas codificadas uma vez por console; as cópias de fork() usam as mesmas
+    private static final class Texts {
+        final Charset charset;
+        final byte[] newLine;
+        final byte[] played;
+        final byte[] perfect;
+        final byte[] left;
+        final byte[] right;
+        final byte[][] outcomes; // Por valor - EndgameSolver.LOSS
+        final byte[] passed;
+        final byte[] undone;
+        final byte[] won;
+        final byte[] wonEnd;
+        final byte[] blocked;
+        final byte[] draw;
+        final byte[] points;
+        final byte[] footer;
+
+        Texts(Charset charset) {
+            this.charset = charset;
+            newLine = encode(System.lineSeparator());
+            played = encode(" jogou: ");
+            perfect = encode(" (final perfeito: jogue ");
+            left = encode(" (E) — ");
+            right = encode(" (D) — ");
+            outcomes = new byte[][]{
+                    encode(EndgameSolver.Solution.outcome(EndgameSolver.LOSS)),
+                    encode(EndgameSolver.Solution.outcome(EndgameSolver.DRAW)),
+                    encode(EndgameSolver.Solution.outcome(EndgameSolver.WIN))};
+            passed = encode(" passou a vez.");
+            undone = encode("↩️ Última jogada desfeita.");
+            won = encode("🎉 ");
+            wonEnd = encode(" bateu!");
+            blocked = encode("🔒 Jogo fechado! Ninguém pode jogar.");
+            draw = encode("Empate na contagem de pontos.");
+            points = encode("Vence por pontos: ");
+            footer = encode("--- 🏁 Fim da Simulação ---");
+        }
+
+        byte[] encode(String text) {
+            return text.getBytes(charset);
+        }
+    }
+
+    private final Texts texts;
+    private final byte[][] names = new byte[GameState.PLAYERS][];
+    private List<String> lastNames; // Os nomes só são recodificados quando a lista muda
+
+    // out não é fechado por close
+    ConsoleEvents(PrintStream out) {
+        super(new EventWriter(out, false), true);
+        texts = new Texts(out.charset());
+    }
+
+    private ConsoleEvents(EventWriter writer, Texts texts) {
+        super(writer, false);
+        this.texts = texts;
+    }
+
+    @Override
+    public GameEvents fork() {
+        return new ConsoleEvents(writer, texts);
+    }
+
+    @Override
+    public void gameStarted(DominoSet set, List<String> names) {
+        if (names != lastNames) {
+            lastNames = names;
+            for (int seat = 0; seat < names.size(); seat++) {
+                this.names[seat] = texts.encode(names.get(seat));
+            }
+        }
+    }
+
+    @Override
+    public void played(int seat, int tile, boolean right, int solved) {
+        put(names[seat]);
+        put(texts.played);
+        put(TILE_TEXT[tile]);
+        if (solved != NOT_SOLVED) {
+            put(texts.perfect);
+            put(TILE_TEXT[tile]);
+            put(right ? texts.right : texts.left);
+            put(texts.outcomes[solved - EndgameSolver.LOSS]);
+            put(')');
+        }
+        put(texts.newLine);
+    }
+
+    @Override
+    public void passed(int seat) {
+        put(names[seat]);
+        put(texts.passed);
+        put(texts.newLine);
+    }
+
+    @Override
+    public void undone() {
+        put(texts.undone);
+        put(texts.newLine);
+    }
+
+    @Override
+    public void won(int seat) {
+        put(texts.won);
+        put(names[seat]);
+        put(texts.wonEnd);
+        put(texts.newLine);
+        put(texts.footer);
+        put(texts.newLine);
+        gameEnded();
+    }
+
+    @Override
+    public void blocked(int winner) {
+        put(texts.blocked);
+        put(texts.newLine);
+        if (winner == GameState.NO_WINNER) {
+            put(texts.draw);
+        } else {
+            put(texts.points);
+            put(names[winner]);
+        }
+        put(texts.newLine);
+        put(texts.footer);
+        put(texts.newLine);
+        gameEnded();
+    }
+}
@@ -1,29 +1,389 @@
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.stream.Collectors;
 
 public class DominoGame {
     private static final int MAX_PLAYERS = 4;
+    private static final int HISTORY_SHOWN = 20; // Partidas recentes listadas no histórico
+    private static final Path LEGACY_RESULTS = Paths.get("game_results.txt");
+    private static final Path LEADERBOARD_CACHE = Paths.get("leaderboard.cache");
     private List<Player> players = new ArrayList<>();
     private List<GameRecord> gameHistory = new ArrayList<>();
-    private List<DominoTile> tableTiles = new ArrayList<>();
+    private static final Path TRANSCRIPTS = Paths.get("transcricoes"); // Uma transcrição por partida ao vivo
+    private static final Path CHECKPOINT = Paths.get("partida.checkpoint"); // Partida ao vivo em andamento
+    private static final Path PROFILES = Paths.get("perfis.cache"); // Hábitos de cada jogador (PlayerProfiles)
     private boolean isGameActive = false;
-    private int end1 = -1; // Extremidade esquerda da mesa
-    private int end2 = -1; // Extremidade direita da mesa
+    private LiveGame liveGame; // Partida em andamento: pontas da mesa, vez, passes e a mão do principal
+    private Transcript transcript;
     // Variáveis para controle de coelhos e gatos
     private Map<String, Integer> playerScores = new HashMap<>(); // Nome do jogador -> Vitórias
     private int rabbitPoints = 0; // Coelhos
     private int catPoints = 0;    // Gatos
+    private final MatchLog matchLog = new MatchLog(Paths.get("game_results.bin"), Paths.get("game_results.names"));
+    private final Leaderboard leaderboard = new Leaderboard(); // Classificação acumulada, salva em cache
+    private final PlayerProfiles profiles = new PlayerProfiles();
+    private long advisorBudgetMs = MoveAdvisor.DEFAULT_BUDGET_MS; // Tempo do conselheiro por jogada
+    private DominoSet dominoSet = DominoSet.DOUBLE_SIX; // Conjunto das partidas ao vivo e simuladas (--conjunto)
+    private final TileProbabilities tileProbabilities = new TileProbabilities();
+    private final EndgameSolver endgameSolver = new EndgameSolver();
+    private final Ponderer ponderer = new Ponderer(); // Analisa as próximas jogadas enquanto o console espera
+    private Path openingBookFile = OpeningBook.DEFAULT_FILE; // Gerado com --gerar-livro; outro arquivo com --livro
+    private OpeningBook openingBook; // null se não houver livro
+    private GameEvents events = new ConsoleEvents(System.out); // Jogadas das partidas simuladas (--eventos)
+    private GameEvents liveEvents = GameEvents.NONE; // Registro das partidas ao vivo, que já aparecem no console
+    private List<String> simulatedNames = List.of(); // Nomes da última partida simulada, reaproveitados por tableNames
 
     public static void main(String[] args) {
-        new DominoGame().start();
+        // --metricas vale em qualquer modo e em qualquer posição; precisa valer antes de Metrics carregar
+        if (Arrays.asList(args).contains("--metricas")) {
+            System.setProperty(Metrics.PROPERTY, "true");
+            args = Arrays.stream(args).filter(arg -> !arg.equals("--metricas")).toArray(String[]::new);
+        }
+        if (args.length > 0 && args[0].equals("--simular")) {
+            runSimulationFromArgs(args);
+            return;
+        }
+        if (args.length > 4 && args[0].equals(ShardedSimulation.WORKER_FLAG)) {
+            runShardFromArgs(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--torneio")) {
+            runTournamentFromArgs(args);
+            return;
+        }
+        if (args.length > 1 && args[0].equals("--reproduzir")) {
+            replayTranscripts(Paths.get(args[1]));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--gerar-livro")) {
+            generateOpeningBookFromArgs(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--analisar")) {
+            analyzeFromArgs(args);
+            return;
+        }
+        if (args.length > 1 && args[0].equals("--traco")) {
+            printTrace(Paths.get(args[1]));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--servidor")) {
+            serveTablesFromArgs(args);
+            return;
+        }
+        DominoGame game = new DominoGame();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equals("--conselho-ms")) {
+                game.advisorBudgetMs = parseAdvisorBudget(args[i + 1]);
+            } else if (args[i].equals("--conjunto")) {
+                game.dominoSet = parseDominoSet(args[i + 1]);
+            } else if (args[i].equals("--eventos")) {
+                game.openEvents(args[i + 1]);
+            } else if (args[i].equals("--livro")) {
+                game.openingBookFile = Paths.get(args[i + 1]);
+            }
+        }
+        game.start();
+    }
+
+    // Tempo do conselheiro por jogada; inválido, fica o padrão
+    private static long parseAdvisorBudget(String text) {
+        try {
+            long budgetMs = Long.parseLong(text);
+            if (budgetMs > 0 && budgetMs <= MoveAdvisor.MAX_BUDGET_MS) {
+                return budgetMs;
+            }
+        } catch (NumberFormatException e) {
+            // Cai na mensagem abaixo
+        }
+        System.out.println("⚠️ --conselho-ms deve ser um número entre 1 e " + MoveAdvisor.MAX_BUDGET_MS
+                + "; usando " + MoveAdvisor.DEFAULT_BUDGET_MS + " ms.");
+        return MoveAdvisor.DEFAULT_BUDGET_MS;
+    }
+
+    // Conjunto das partidas ao vivo; nome desconhecido, fica o duplo-seis
+    private static DominoSet parseDominoSet(String name) {
+        try {
+            return DominoSet.byName(name);
+        } catch (IllegalArgumentException e) {
+            System.out.println("⚠️ --conjunto: " + e.getMessage() + "; usando " + DominoSet.DOUBLE_SIX.name + ".");
+            return DominoSet.DOUBLE_SIX;
+        }
+    }
+
+    // Uso: --simular <partidas> [--semente N] [--threads N | --processos N] [--conjunto duplo-seis|duplo-nove|duplo-doze]
+    //                 [--eventos nenhum|console|jsonl:<arquivo>|binario:<arquivo>]
+    // Com --processos, as partidas são divididas entre N JVMs trabalhadoras (ShardedSimulation)
+    private static void runSimulationFromArgs(String[] args) {
+        String usage = "Uso: --simular <partidas> [--semente N] [--threads N | --processos N] [--conjunto duplo-seis|duplo-nove|duplo-doze]"
+                + " [--eventos nenhum|console|jsonl:<arquivo>|binario:<arquivo>]";
+        GameEvents events = GameEvents.NONE;
+        try {
+            long games = Long.parseLong(args[1]);
+            long seed = System.nanoTime();
+            int threads = Runtime.getRuntime().availableProcessors();
+            int processes = 0;
+            DominoSet set = DominoSet.DOUBLE_SIX;
+            String eventSpec = "nenhum";
+            for (int i = 2; i + 1 < args.length; i += 2) {
+                if (args[i].equals("--semente")) {
+                    seed = Long.parseLong(args[i + 1]);
+                } else if (args[i].equals("--threads")) {
+                    threads = Integer.parseInt(args[i + 1]);
+                } else if (args[i].equals("--processos")) {
+                    processes = Integer.parseInt(args[i + 1]);
+                } else if (args[i].equals("--conjunto")) {
+                    set = DominoSet.byName(args[i + 1]);
+                } else if (args[i].equals("--eventos")) {
+                    eventSpec = args[i + 1];
+                } else {
+                    throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+                }
+            }
+            if (processes > 0) {
+                // Os eventos ficariam nos trabalhadores: só os resultados voltam pelo pipe
+                if (!eventSpec.equals("nenhum")) {
+                    throw new IllegalArgumentException("--eventos não vale com --processos");
+                }
+                printShardedSimulation(set, games, seed, processes);
+                return;
+            }
+            events = GameEvents.open(eventSpec);
+            printSimulation(set, events, games, seed, threads);
+            printMetrics();
+        } catch (IOException e) {
+            System.out.println("Erro ao abrir o destino dos eventos: " + e.getMessage());
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            System.out.println(usage);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Erro: " + e.getMessage());
+            System.out.println(usage);
+        } finally {
+            events.close();
+        }
+    }
+
+    // Mostra no console um traço binário gravado com --eventos binario:<arquivo>
+    private static void printTrace(Path path) {
+        GameEvents console = new ConsoleEvents(System.out);
+        try {
+            BinaryTraceEvents.replay(path, console);
+        } catch (IOException e) {
+            System.out.println("Erro ao ler o traço: " + e.getMessage());
+        } finally {
+            console.close();
+        }
+    }
+
+    // --eventos no modo console: as simulações vão para o destino escolhido, e as partidas ao vivo
+    // também ficam registradas nele (no console elas já aparecem)
+    private void openEvents(String spec) {
+        try {
+            GameEvents opened = GameEvents.open(spec);
+            events.close();
+            events = opened;
+            liveEvents = spec.equals("console") ? GameEvents.NONE : events;
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Eventos no console: " + e.getMessage());
+        }
+    }
+
+    // Uso: --torneio <distribuições> [--bots primeira,pesada,...] [--semente N] [--threads N] [--conjunto X]
+    private static void runTournamentFromArgs(String[] args) {
+        String usage = "Uso: --torneio <distribuições> [--bots " + String.join(",", Strategy.NAMES)
+                + "] [--semente N] [--threads N] [--conjunto duplo-seis|duplo-nove|duplo-doze]";
+        try {
+            long deals = Long.parseLong(args[1]);
+            long seed = System.nanoTime();
+            int threads = Runtime.getRuntime().availableProcessors();
+            DominoSet set = DominoSet.DOUBLE_SIX;
+            String[] names = Strategy.NAMES;
+            for (int i = 2; i + 1 < args.length; i += 2) {
+                if (args[i].equals("--bots")) {
+                    names = args[i + 1].split(",");
+                } else if (args[i].equals("--semente")) {
+                    seed = Long.parseLong(args[i + 1]);
+                } else if (args[i].equals("--threads")) {
+                    threads = Integer.parseInt(args[i + 1]);
+                } else if (args[i].equals("--conjunto")) {
+                    set = DominoSet.byName(args[i + 1]);
+                } else {
+                    throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+                }
+            }
+            Strategy[] strategies = new Strategy[names.length];
+            for (int i = 0; i < names.length; i++) {
+                strategies[i] = Strategy.byName(names[i].trim());
+            }
+            long start = System.nanoTime();
+            Tournament.Standings standings = Tournament.run(set, strategies, seed, deals, threads);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.println("Conjunto: " + set + ", semente: " + seed + ", threads: " + threads);
+            System.out.println(standings.format());
+            System.out.printf("Tempo: %.3f s (%.0f partidas por segundo)%n", seconds, standings.getGames() / seconds);
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            System.out.println(usage);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Erro: " + e.getMessage());
+            System.out.println(usage);
+        }
+    }
+
+    // Reproduz transcrições gravadas (um arquivo ou um diretório) sem console e relata os problemas
+    private static void replayTranscripts(Path path) {
+        try {
+            System.out.println(TranscriptReplayer.replay(path).format());
+        } catch (IOException e) {
+            System.out.println("Erro ao ler as transcrições: " + e.getMessage());
+        }
+    }
+
+    // Uso: --analisar <diretório|arquivo> [--amostras N] [--threads N]
+    private static void analyzeFromArgs(String[] args) {
+        String usage = "Uso: --analisar <diretório|arquivo> [--amostras N] [--threads N]";
+        try {
+            Path path = Paths.get(args[1]);
+            int samples = GameAnalyzer.DEFAULT_SAMPLES;
+            int threads = Runtime.getRuntime().availableProcessors();
+            for (int i = 2; i + 1 < args.length; i += 2) {
+                if (args[i].equals("--amostras")) {
+                    samples = Integer.parseInt(args[i + 1]);
+                } else if (args[i].equals("--threads")) {
+                    threads = Integer.parseInt(args[i + 1]);
+                } else {
+                    throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+                }
+            }
+            System.out.println(new GameAnalyzer(samples).analyze(path, threads).format());
+            printMetrics();
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            System.out.println(usage);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Erro: " + e.getMessage());
+            System.out.println(usage);
+        } catch (IOException e) {
+            System.out.println("Erro ao ler as transcrições: " + e.getMessage());
+        }
+    }
+
+    // Uso: --gerar-livro <arquivo> [--amostras N] [--threads N]
+    private static void generateOpeningBookFromArgs(String[] args) {
+        String usage = "Uso: --gerar-livro <arquivo> [--amostras N] [--threads N]";
+        try {
+            Path file = Paths.get(args[1]);
+            int samples = OpeningBook.DEFAULT_SAMPLES;
+            int threads = Runtime.getRuntime().availableProcessors();
+            for (int i = 2; i + 1 < args.length; i += 2) {
+                if (args[i].equals("--amostras")) {
+                    samples = Integer.parseInt(args[i + 1]);
+                } else if (args[i].equals("--threads")) {
+                    threads = Integer.parseInt(args[i + 1]);
+                } else {
+                    throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+                }
+            }
+            long start = System.nanoTime();
+            int hands = OpeningBook.generate(file, samples, threads);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Livro de aberturas: %d mãos em %s (%.1f s)%n", hands, file, seconds);
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            System.out.println(usage);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Erro: " + e.getMessage());
+            System.out.println(usage);
+        } catch (IOException e) {
+            System.out.println("Erro ao gravar o livro de aberturas: " + e.getMessage());
+        }
+    }
+
+    // Uso: --servidor [porta]
+    // Atende várias mesas ao mesmo tempo pela rede local (ver TableSession para o protocolo)
+    private static void serveTablesFromArgs(String[] args) {
+        String usage = "Uso: --servidor [porta] (padrão " + SessionServer.DEFAULT_PORT + ")";
+        try {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : SessionServer.DEFAULT_PORT;
+            if (port < 0 || port > 0xFFFF) {
+                throw new IllegalArgumentException("porta fora do intervalo 0-65535: " + port);
+            }
+            SessionServer server = new SessionServer();
+            // Ctrl+C ou kill: fecha a porta e deixa as mesas abertas terminarem antes de a JVM sair
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    server.close();
+                } catch (IOException | InterruptedException e) {
+                    System.out.println("Erro ao encerrar o servidor de mesas: " + e.getMessage());
+                }
+            }));
+            server.serve(port);
+        } catch (NumberFormatException e) {
+            System.out.println(usage);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Erro: " + e.getMessage());
+            System.out.println(usage);
+        } catch (IOException e) {
+            System.out.println("Erro no servidor de mesas: " + e.getMessage());
+        }
+    }
+
+    private static void printShardedSimulation(DominoSet set, long games, long seed, int processes) {
+        long start = System.nanoTime();
+        ShardedSimulation.Result result;
+        try {
+            result = ShardedSimulation.run(set, seed, games, processes);
+        } catch (IOException e) {
+            System.out.println("Erro na simulação em processos: " + e.getMessage());
+            return;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println("Conjunto: " + set + ", semente: " + seed + ", processos: " + processes);
+        System.out.println(result.stats.format());
+        if (result.restarts > 0) {
+            System.out.println("Trabalhadores relançados após falha: " + result.restarts);
+        }
+        System.out.printf("Tempo: %.3f s (%.0f partidas por minuto)%n", seconds, games / seconds * 60);
+    }
+
+    // Processo trabalhador lançado por ShardedSimulation: <conjunto> <semente> <primeira partida> <partidas>.
+    // A saída padrão é o pipe dos resultados; erros vão para a saída de erro, que o coordenador repassa
+    private static void runShardFromArgs(String[] args) {
+        try {
+            ShardedSimulation.work(DominoSet.byName(args[1]), Long.parseLong(args[2]), Long.parseLong(args[3]),
+                    Long.parseLong(args[4]));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Erro no trabalhador: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void printSimulation(DominoSet set, GameEvents events, long games, long seed, int threads) {
+        long start = System.nanoTime();
+        SimulationStats stats = ParallelSimulation.run(set, events, seed, games, threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println("Conjunto: " + set + ", semente: " + seed + ", threads: " + threads);
+        System.out.println(stats.format());
+        System.out.printf("Tempo: %.3f s (%.0f partidas por minuto)%n", seconds, games / seconds * 60);
+    }
+
+    // Ao fim de cada modo, se ligadas com --metricas
+    private static void printMetrics() {
+        if (Metrics.ENABLED) {
+            System.out.println(Metrics.snapshot());
+        }
     }
 
     public void start() {
         Scanner scanner = new Scanner(System.in);
+        restoreHistory();
+        restoreLeaderboard();
+        restoreProfiles();
+        loadOpeningBook();
+        offerResume(scanner);
         while (true) {
             displayMainMenu();
-            int choice = getValidInput(scanner, 1, 5); // Atualizado para incluir a nova opção
+            int choice = getValidInput(scanner, 1, 8);
             switch (choice) {
                 case 1:
                     startNewGame(scanner);
@@ -35,62 +395,159 @@ public class DominoGame {
                     resetGame();
                     break;
                 case 4:
-                    simulatePredefinedGame(); // Nova funcionalidade
+                    simulatePredefinedGame(scanner);
                     break;
                 case 5:
+                    runBatchSimulation(scanner);
+                    break;
+                case 6:
+                    importLegacyResults(scanner);
+                    break;
+                case 7:
+                    System.out.println(Metrics.snapshot());
+                    break;
+                case 8:
                     System.out.println("Encerrando o sistema...");
+                    closeMatchLog();
+                    printMetrics();
                     return;
             }
         }
     }
 
+    // Senta uma partida já montada sem passar pelo cadastro (usado pelos benchmarks)
+    void seatGame(LiveGame game) {
+        players.clear();
+        players.addAll(game.getPlayers());
+        liveGame = game;
+    }
+
     private void registerPlayers(Scanner scanner) {
         System.out.println("\n--- 👥 Cadastro de Jogadores ---");
         players.clear();
-        playerScores.clear(); // Limpa as pontuações ao reiniciar
         for (int i = 0; i < MAX_PLAYERS; i++) {
             System.out.print("Digite o nome do jogador " + (i + 1) + " (ou pressione Enter para usar o nome padrão): ");
             String name = scanner.nextLine().trim();
             if (name.isEmpty()) {
                 name = "Jogador " + (i + 1);
             }
-            players.add(new Player(name));
-            playerScores.put(name, 0); // Inicializa a pontuação do jogador
+            Player player = new Player(name);
+            player.setProfile(profiles.get(name));
+            players.add(player);
+            playerScores.putIfAbsent(name, 0); // Mantém a pontuação de partidas anteriores
         }
         System.out.println("\n--- ✅ Jogadores cadastrados ---");
         for (Player player : players) {
-            System.out.println("- " + player.getName());
+            System.out.println("- " + player.getName() + (player.getProfile() != null ? " (" + player.getProfile() + ")" : ""));
+        }
+    }
+
+    // O livro fica mapeado na memória; sem ele, a primeira jogada é aconselhada como as outras
+    private void loadOpeningBook() {
+        try {
+            openingBook = OpeningBook.open(openingBookFile);
+        } catch (IOException e) {
+            System.out.println("⚠️ Não foi possível ler o livro de aberturas: " + e.getMessage());
+        }
+    }
+
+    // Recupera histórico, pontuações, coelhos e gatos gravados em execuções anteriores
+    private void restoreHistory() {
+        try {
+            MatchLog.Snapshot snapshot = matchLog.load();
+            gameHistory.addAll(snapshot.games);
+            playerScores.putAll(snapshot.scores);
+            rabbitPoints = snapshot.rabbitPoints;
+            catPoints = snapshot.catPoints;
+        } catch (IOException e) {
+            System.out.println("⚠️ Não foi possível ler o histórico salvo: " + e.getMessage());
+        }
+    }
+
+    // Carrega a classificação do cache e importa só o que foi acrescentado ao arquivo antigo desde então
+    private void restoreLeaderboard() {
+        try {
+            leaderboard.load(LEADERBOARD_CACHE);
+        } catch (IOException e) {
+            System.out.println("⚠️ Cache de classificação inválido, recriando: " + e.getMessage());
+            try {
+                Files.deleteIfExists(LEADERBOARD_CACHE);
+                leaderboard.load(LEADERBOARD_CACHE);
+            } catch (IOException ignored) {
+                // Segue com a classificação vazia
+            }
+        }
+        if (Files.exists(LEGACY_RESULTS)) {
+            importLegacyResults(LEGACY_RESULTS);
+        }
+    }
+
+    private void importLegacyResults(Scanner scanner) {
+        System.out.print("Caminho do arquivo de resultados antigo (Enter para " + LEGACY_RESULTS + "): ");
+        String input = scanner.nextLine().trim();
+        Path file = input.isEmpty() ? LEGACY_RESULTS : Paths.get(input);
+        if (!Files.exists(file)) {
+            System.out.println("⚠️ Arquivo não encontrado: " + file);
+            return;
         }
+        int imported = importLegacyResults(file);
+        System.out.println("📥 " + imported + " partidas importadas de " + file);
     }
 
-    private void saveResultsToFile(Player winner) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter("game_results.txt", true))) {
-            writer.write("Partida #" + gameHistory.size() + " - Vencedor: " + winner.getName());
-            writer.newLine();
-            writer.write("Pontuação Atual:");
-            for (Map.Entry<String, Integer> entry : playerScores.entrySet()) {
-                writer.write(" " + entry.getKey() + ": " + entry.getValue());
+    private int importLegacyResults(Path file) {
+        try {
+            int imported = LegacyResultsImporter.importFile(file, leaderboard);
+            if (imported > 0) {
+                leaderboard.save(LEADERBOARD_CACHE);
             }
-            writer.newLine();
-            writer.write("Coelhos: " + rabbitPoints + ", Gatos: " + catPoints);
-            writer.newLine();
-            writer.write("	");
-            writer.newLine();
+            return imported;
+        } catch (IOException e) {
+            System.out.println("⚠️ Não foi possível importar " + file + ": " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private void saveResultsToFile(int gameId, Player winner) {
+        List<String> names = new ArrayList<>();
+        int[] scores = new int[players.size()];
+        for (int i = 0; i < players.size(); i++) {
+            names.add(players.get(i).getName());
+            scores[i] = playerScores.get(players.get(i).getName());
+        }
+        try {
+            int winnerSeat = winner == null ? GameState.NO_WINNER : players.indexOf(winner);
+            matchLog.append(gameId, System.currentTimeMillis(), names, winnerSeat, scores, rabbitPoints, catPoints);
         } catch (IOException e) {
             System.out.println("Erro ao salvar os resultados no arquivo.");
         }
     }
 
+    private void closeMatchLog() {
+        events.close();
+        try {
+            matchLog.close();
+        } catch (IOException e) {
+            System.out.println("Erro ao fechar o arquivo de resultados.");
+        }
+    }
+
+    // winner é null num jogo fechado: a partida conta para todos, sem vitória para ninguém
     private void endGame(Player winner) {
         System.out.println("\n--- 🏆 Fim da partida! ---");
-        System.out.println("O vencedor é: " + winner.getName());
-        // Incrementa a pontuação do vencedor
-        playerScores.put(winner.getName(), playerScores.get(winner.getName()) + 1);
-        // Verifica se o jogador atingiu 4 vitórias (coelho)
-        if (playerScores.get(winner.getName()) >= 4) {
-            rabbitPoints++;
-            System.out.println("🎉 " + winner.getName() + " fez um COELHO!");
-            playerScores.put(winner.getName(), 0); // Reseta a pontuação do jogador
+        boolean rabbit = false;
+        if (winner == null) {
+            System.out.println("Jogo fechado: a partida fica registrada sem vencedor.");
+        } else {
+            System.out.println("O vencedor é: " + winner.getName());
+            // Incrementa a pontuação do vencedor
+            playerScores.put(winner.getName(), playerScores.get(winner.getName()) + 1);
+            // Verifica se o jogador atingiu 4 vitórias (coelho)
+            rabbit = playerScores.get(winner.getName()) >= 4;
+            if (rabbit) {
+                rabbitPoints++;
+                System.out.println("🎉 " + winner.getName() + " fez um COELHO!");
+                playerScores.put(winner.getName(), 0); // Reseta a pontuação do jogador
+            }
         }
         // Verifica se nenhum jogador marcou pontos (gato)
         boolean noPoints = true;
@@ -105,11 +562,46 @@ public class DominoGame {
             System.out.println("🐱 Nenhum jogador marcou pontos. Um GATO foi adicionado!");
         }
         // Salva os resultados no arquivo
-        saveResultsToFile(winner);
+        int gameId = gameHistory.size() + 1;
+        saveResultsToFile(gameId, winner);
         // Exibe os resultados no console
         displayScores();
         isGameActive = false;
-        gameHistory.add(new GameRecord(gameHistory.size() + 1, players));
+        List<String> names = new ArrayList<>();
+        for (Player player : players) {
+            names.add(player.getName());
+        }
+        String winnerName = winner == null ? null : winner.getName();
+        gameHistory.add(new GameRecord(gameId, names, winnerName));
+        // Só a partida nova entra na classificação; nada é relido
+        leaderboard.recordGame(names, winnerName, rabbit, noPoints);
+        saveLeaderboard();
+    }
+
+    // Perfis ilegíveis são descartados: eles se refazem com as próximas partidas
+    private void restoreProfiles() {
+        try {
+            profiles.load(PROFILES);
+        } catch (IOException e) {
+            System.out.println("⚠️ Perfis dos jogadores inválidos, recomeçando: " + e.getMessage());
+            profiles.clear();
+        }
+    }
+
+    private void saveProfiles() {
+        try {
+            profiles.save(PROFILES);
+        } catch (IOException e) {
+            System.out.println("Erro ao salvar os perfis dos jogadores.");
+        }
+    }
+
+    private void saveLeaderboard() {
+        try {
+            leaderboard.save(LEADERBOARD_CACHE);
+        } catch (IOException e) {
+            System.out.println("Erro ao salvar a classificação.");
+        }
     }
 
     private void displayScores() {
@@ -127,7 +619,10 @@ public class DominoGame {
         System.out.println("2. 📋 Ver histórico de partidas");
         System.out.println("3. 🔁 Reiniciar o histórico");
         System.out.println("4. 🧪 Simular um jogo predefinido"); // Nova opção
-        System.out.println("5. ❌ Encerrar execução");
+        System.out.println("5. ⚡ Simular partidas em lote");
+        System.out.println("6. 📥 Importar resultados antigos");
+        System.out.println("7. 📊 Métricas de desempenho");
+        System.out.println("8. ❌ Encerrar execução");
         System.out.print("Escolha uma opção: ");
     }
 
@@ -148,7 +643,7 @@ public class DominoGame {
     private void definePlayerDominoes(Scanner scanner, Player player) {
         System.out.println("\n--- 🪨 Definindo as pedras de " + player.getName() + " ---");
         List<DominoTile> playerDominoes = new ArrayList<>();
-        for (int i = 0; i < 7; i++) {
+        for (int i = 0; i < dominoSet.handSize; i++) {
             while (true) {
                 try {
                     System.out.print("Digite a pedra " + (i + 1) + " no formato 'x/y': ");
@@ -159,11 +654,11 @@ public class DominoGame {
                     String[] sides = dominoInput.split("/");
                     int side1 = Integer.parseInt(sides[0]);
                     int side2 = Integer.parseInt(sides[1]);
-                    if (side1 > 6 || side2 > 6) {
-                        System.out.println("Pedra inválida! O valor das pedras deve ser entre 0 e 6.");
+                    if (side1 > dominoSet.maxPip || side2 > dominoSet.maxPip) {
+                        System.out.println("Pedra inválida! O valor das pedras deve ser entre 0 e " + dominoSet.maxPip + ".");
                         continue;
                     }
-                    playerDominoes.add(new DominoTile(side1, side2));
+                    playerDominoes.add(DominoTile.of(side1, side2));
                     break;
                 } catch (Exception e) {
                     System.out.println("Entrada inválida. Tente novamente.");
@@ -201,188 +696,354 @@ public class DominoGame {
     }
 
     private void playGame(Scanner scanner, int startingPlayerIndex, int principalPlayerIndex) {
-        System.out.println("\n--- 🎮 Início do Jogo ---");
-        isGameActive = true;
-        tableTiles.clear();
-        Set<DominoTile> allTiles = generateAllTiles();
-        // Remove as pedras dos jogadores do conjunto total
+        System.out.println("\n--- 🎮 Início do Jogo (" + dominoSet + ") ---");
+        liveGame = new LiveGame(dominoSet, players, principalPlayerIndex, startingPlayerIndex);
+        transcript = new Transcript();
+        transcript.set = dominoSet;
         for (Player player : players) {
-            allTiles.removeAll(player.getDominoes());
+            transcript.players.add(player.getName());
+        }
+        transcript.principal = principalPlayerIndex;
+        transcript.hand.addAll(players.get(principalPlayerIndex).getDominoes());
+        transcript.starter = startingPlayerIndex;
+        liveEvents.gameStarted(dominoSet, transcript.players);
+        saveCheckpoint();
+        continueGame(scanner);
+    }
+
+    // Oferece retomar a partida interrompida (queda, suspensão) do ponto salvo depois da última jogada
+    private void offerResume(Scanner scanner) {
+        Checkpoint checkpoint;
+        try {
+            checkpoint = Checkpoint.load(CHECKPOINT);
+        } catch (IOException e) {
+            System.out.println("⚠️ Não foi possível ler a partida interrompida: " + e.getMessage());
+            return;
+        }
+        if (checkpoint == null) {
+            return;
+        }
+        System.out.print("\n💾 Há uma partida interrompida (" + String.join(", ", checkpoint.transcript.players) + ", "
+                + checkpoint.moveCount() + " jogadas). Continuar partida? (s/n, n descarta): ");
+        if (!scanner.nextLine().trim().equalsIgnoreCase("s")) {
+            deleteCheckpoint();
+            return;
+        }
+        List<Player> restored = new ArrayList<>();
+        for (String name : checkpoint.transcript.players) {
+            Player player = new Player(name);
+            player.setProfile(profiles.get(name));
+            restored.add(player);
+        }
+        Transcript header = checkpoint.transcript;
+        restored.get(header.principal).setDominoes(new ArrayList<>(header.hand));
+        try {
+            liveGame = checkpoint.replay(restored);
+        } catch (IOException e) {
+            System.out.println("⚠️ Não foi possível retomar a partida: " + e.getMessage());
+            return;
+        }
+        players = restored;
+        dominoSet = header.set;
+        transcript = header;
+        for (int i = 0; i < restored.size(); i++) {
+            playerScores.put(restored.get(i).getName(), checkpoint.scores[i]);
+        }
+        rabbitPoints = checkpoint.rabbitPoints;
+        catPoints = checkpoint.catPoints;
+        System.out.println("\n--- 🎮 Partida retomada (" + dominoSet + ") ---");
+        // Como em playGame, a partida começa no fluxo de eventos, com as jogadas que já tinham sido feitas
+        liveEvents.gameStarted(dominoSet, transcript.players);
+        for (LiveGame.Event event : liveGame.getEvents()) {
+            if (event.type == LiveGame.EventType.PLAYED) {
+                liveEvents.played(event.seat, event.tile.ordinal(), !event.left, GameEvents.NOT_SOLVED);
+            } else if (event.type == LiveGame.EventType.PASSED) {
+                liveEvents.passed(event.seat);
+            }
+        }
+        continueGame(scanner);
+    }
+
+    // Grava o ponto de retomada; uma falha aqui não interrompe a partida
+    private void saveCheckpoint() {
+        int[] scores = new int[players.size()];
+        for (int i = 0; i < players.size(); i++) {
+            scores[i] = playerScores.getOrDefault(players.get(i).getName(), 0);
         }
-        int currentPlayerIndex = startingPlayerIndex;
+        try {
+            Checkpoint.save(CHECKPOINT, transcript, liveGame, scores, rabbitPoints, catPoints);
+        } catch (IOException e) {
+            System.out.println("⚠️ Não foi possível salvar o ponto de retomada: " + e.getMessage());
+        }
+    }
+
+    private void deleteCheckpoint() {
+        try {
+            Files.deleteIfExists(CHECKPOINT);
+        } catch (IOException e) {
+            System.out.println("Erro ao apagar o ponto de retomada.");
+        }
+    }
+
+    // Laço da partida ao vivo, do ponto em que liveGame está
+    private void continueGame(Scanner scanner) {
+        isGameActive = true;
+        ponderer.clear();
+        int principalPlayerIndex = liveGame.getPrincipal();
+        Metrics.GameSpan gameSpan = new Metrics.GameSpan();
+        gameSpan.begin();
+        gameSpan.set = dominoSet.toString();
         while (isGameActive) {
+            int currentPlayerIndex = liveGame.currentSeat();
             Player currentPlayer = players.get(currentPlayerIndex);
+            Metrics.TurnSpan turnSpan = new Metrics.TurnSpan();
+            turnSpan.begin();
+            turnSpan.player = currentPlayer.getName();
+            turnSpan.principal = currentPlayerIndex == principalPlayerIndex;
+            // Análise já feita em segundo plano durante a jogada anterior, se ela foi prevista
+            Ponderer.Analysis pondered = ponderer.take(liveGame);
             // Calcula as possíveis pedras para todos os jogadores, exceto o principal
-            calculatePossibleTilesForPlayers(allTiles, principalPlayerIndex);
+            if (pondered != null) {
+                long start = Metrics.start();
+                printPossibleTiles(pondered.probabilities);
+                Metrics.record(Metrics.Phase.OUTPUT, start);
+            } else {
+                calculatePossibleTilesForPlayers();
+            }
             System.out.println("\n--- 🪞 Mesa atual: " + formatTableTiles() + " ---");
             System.out.println("➡️ Vez de " + currentPlayer.getName() + ":");
             if (currentPlayerIndex == principalPlayerIndex) {
                 System.out.println("🪨 Minhas pedras: " + currentPlayer.getDominoes());
+                long start = Metrics.start();
+                OpeningBook.Move opening = openingBook == null ? null : openingBook.lookup(liveGame);
+                if (opening != null) {
+                    System.out.println("📖 Livro de aberturas: " + opening);
+                } else if (pondered != null) {
+                    if (!printEndgameSolution(pondered.solution)) {
+                        printAdvice(pondered.advice, true);
+                    }
+                } else if (!printEndgameSolution(liveGame.solveEndgame(tileProbabilities, endgameSolver))) {
+                    printAdvice(liveGame.advise(advisorBudgetMs), false);
+                }
+                Metrics.record(Metrics.Phase.ADVICE, start);
             } else {
                 System.out.println("📚 Histórico do jogador: " + currentPlayer.getFormattedHistory());
             }
+            ponderer.start(liveGame, advisorBudgetMs);
             boolean validMove = false;
             while (!validMove) {
-                System.out.print("Escolha uma pedra para jogar (formato x/y) ou digite 'p' para passar: ");
-                String input = scanner.nextLine();
+                System.out.print("Escolha uma pedra para jogar (formato x/y), 'p' para passar ou 'u' para desfazer a última jogada: ");
+                String input = scanner.nextLine().trim();
+                if (input.equalsIgnoreCase("u")) {
+                    // Volta a vez para quem fez a última jogada, sem recomeçar a partida
+                    if (liveGame.undo()) {
+                        liveEvents.undone();
+                        System.out.println("↩️ Última jogada desfeita.");
+                        break;
+                    }
+                    System.out.println("Nada para desfazer.");
+                    Metrics.increment(Metrics.Counter.REJECTED_INPUTS);
+                    continue;
+                }
                 if (input.equalsIgnoreCase("p")) {
                     System.out.println(currentPlayer.getName() + " passou a vez.");
-                    // Registra o passe no histórico com os valores das pontas da mesa como negativos
-                    DominoTile passTile = new DominoTile(-Math.abs(end1), -Math.abs(end2));
-                    currentPlayer.addToHistory(passTile);
-                    // Remove todas as pedras que contenham os números das extremidades (6 ou 2)
-                    if (end1 != -1) {
-                        removeTilesWithNumber(currentPlayer, Math.abs(end1));
-                    }
-                    if (end2 != -1) {
-                        removeTilesWithNumber(currentPlayer, Math.abs(end2));
+                    long start = Metrics.start();
+                    LiveGame.Outcome outcome = liveGame.pass();
+                    Metrics.record(Metrics.Phase.MOVE, start);
+                    Metrics.increment(Metrics.Counter.PASSES);
+                    turnSpan.move = "p";
+                    liveEvents.passed(currentPlayerIndex);
+                    if (outcome == LiveGame.Outcome.BLOCKED) {
+                        liveEvents.blocked(GameState.NO_WINNER);
+                        System.out.println("🔒 Jogo fechado! Ninguém pode jogar.");
+                        ponderer.cancel();
+                        finishTranscript(Transcript.BLOCKED);
+                        gameSpan.result = Transcript.BLOCKED;
+                        // As mãos dos adversários não são conhecidas: fica registrado sem vencedor
+                        endGame(null);
                     }
                     break;
                 }
                 try {
-                    String[] split = input.split("/");
-                    if (split.length != 2) throw new IllegalArgumentException("Formato inválido.");
-                    int side1 = Integer.parseInt(split[0]);
-                    int side2 = Integer.parseInt(split[1]);
-                    DominoTile tileToPlay = new DominoTile(side1, side2);
-                    if (currentPlayerIndex != principalPlayerIndex && !allTiles.contains(tileToPlay)) {
-                        throw new IllegalArgumentException("A pedra não está entre as possíveis pedras do jogador.");
+                    DominoTile tileToPlay = Transcript.parseTile(input);
+                    long start = Metrics.start();
+                    LiveGame.Outcome outcome = liveGame.play(tileToPlay, LiveGame.Side.ANY);
+                    Metrics.record(Metrics.Phase.MOVE, start);
+                    if (outcome == LiveGame.Outcome.NEEDS_SIDE) {
+                        String side = chooseSide(scanner);
+                        start = Metrics.start();
+                        outcome = liveGame.play(tileToPlay, side.equals("D") ? LiveGame.Side.RIGHT : LiveGame.Side.LEFT);
+                        Metrics.record(Metrics.Phase.MOVE, start);
                     }
-                    if (playTileOnTable(tileToPlay, scanner)) {
-                        currentPlayer.playTile(tileToPlay);
-                        allTiles.remove(tileToPlay);
-                        // Remover a pedra jogada das possíveis pedras de todos os jogadores
-                        for (Player player : players) {
-                            if (player != currentPlayer) { // Não altera o conjunto do jogador atual
-                                player.addToNotPossibleTiles(tileToPlay);
-                            }
-                        }
-                        validMove = true;
-                        if (currentPlayer.getDominoes().isEmpty() && currentPlayer.getPlayCount() == 7) {
-                            System.out.println("🎉 Parabéns, " + currentPlayer.getName() + "! Você venceu por jogar todas as suas peças após 7 jogadas.");
-                            endGame(currentPlayer);
-                            return;
-                        } else if (currentPlayer.getDominoes().isEmpty()) {
-                            // Remove a mensagem indesejada
-                        }
-                        System.out.println(currentPlayer.getName() + " jogou " + tileToPlay);
-                    } else {
-                        System.out.println("❌ Jogada inválida. A pedra não combina com nenhuma extremidade da mesa.");
+                    switch (outcome) {
+                        case NOT_AVAILABLE:
+                            throw new IllegalArgumentException("A pedra não está entre as possíveis pedras do jogador.");
+                        case NOT_IN_HAND:
+                            throw new IllegalArgumentException("A pedra não está entre as suas pedras.");
+                        case NO_FIT:
+                            System.out.println("❌ Jogada inválida. A pedra não combina com nenhuma extremidade da mesa.");
+                            Metrics.increment(Metrics.Counter.REJECTED_INPUTS);
+                            continue;
+                        default:
+                            break;
                     }
+                    validMove = true;
+                    Metrics.increment(Metrics.Counter.MOVES);
+                    turnSpan.move = tileToPlay.toString();
+                    LiveGame.Event played = liveGame.getEvents().get(liveGame.getEvents().size() - 1);
+                    liveEvents.played(currentPlayerIndex, tileToPlay.ordinal(), !played.left, GameEvents.NOT_SOLVED);
+                    if (outcome == LiveGame.Outcome.WON) {
+                        liveEvents.won(currentPlayerIndex);
+                        System.out.println("🎉 Parabéns, " + currentPlayer.getName() + "! Você venceu por jogar todas as suas peças após " + dominoSet.handSize + " jogadas.");
+                        ponderer.cancel();
+                        finishTranscript(currentPlayer.getName());
+                        turnSpan.commit();
+                        gameSpan.result = currentPlayer.getName();
+                        commitGameSpan(gameSpan);
+                        endGame(currentPlayer);
+                        return;
+                    }
+                    System.out.println(currentPlayer.getName() + " jogou " + tileToPlay);
                 } catch (Exception e) {
                     System.out.println("⚠️ " + e.getMessage());
+                    Metrics.increment(Metrics.Counter.REJECTED_INPUTS);
                 }
             }
-            currentPlayerIndex = (currentPlayerIndex + 1) % players.size();
+            turnSpan.commit();
+            // A jogada chegou: o que ainda estava sendo ponderado ficou velho
+            ponderer.cancel();
+            if (isGameActive) {
+                saveCheckpoint();
+            }
         }
+        commitGameSpan(gameSpan);
     }
 
-    private Set<DominoTile> generateAllTiles() {
-        Set<DominoTile> allTiles = new HashSet<>();
-        for (int i = 0; i <= 6; i++) {
-            for (int j = i; j <= 6; j++) {
-                allTiles.add(new DominoTile(i, j));
-            }
+    private void commitGameSpan(Metrics.GameSpan gameSpan) {
+        Metrics.increment(Metrics.Counter.GAMES);
+        gameSpan.moves = liveGame.moveTokens().size();
+        gameSpan.commit();
+    }
+
+    private String chooseSide(Scanner scanner) {
+        System.out.print("A pedra pode ser colocada nos dois lados. Escolha o lado (E para esquerdo, D para direito): ");
+        String sideChoice = scanner.nextLine().trim().toUpperCase();
+        if (!sideChoice.equals("E") && !sideChoice.equals("D")) {
+            System.out.println("Escolha inválida. Usando o lado esquerdo por padrão.");
+            return "E";
+        }
+        return sideChoice;
+    }
+
+    // Grava a transcrição da partida para poder reproduzi-la depois (--reproduzir)
+    private void finishTranscript(String result) {
+        liveEvents.flush();
+        deleteCheckpoint();
+        transcript.moves.addAll(liveGame.moveTokens());
+        transcript.result = result;
+        profiles.recordGame(dominoSet, players);
+        saveProfiles();
+        try {
+            Files.createDirectories(TRANSCRIPTS);
+            String name = String.format("partida-%tY%<tm%<td-%<tH%<tM%<tS-%<tL%s", new Date(), Transcript.EXTENSION);
+            Files.writeString(TRANSCRIPTS.resolve(name), transcript.format());
+        } catch (IOException e) {
+            System.out.println("Erro ao salvar a transcrição da partida.");
         }
-        return allTiles;
     }
 
-    private void calculatePossibleTilesForPlayers(Set<DominoTile> allTiles, int principalPlayerIndex) {
+    // Os métodos do caminho de cada turno são visíveis no pacote para os benchmarks (Botmino/benchmarks)
+    void calculatePossibleTilesForPlayers() {
+        // Probabilidade de cada adversário ter cada pedra; null se o histórico for incoerente
+        long start = Metrics.start();
+        double[][] probabilities = liveGame.probabilities(tileProbabilities);
+        Metrics.record(Metrics.Phase.PROBABILITIES, start);
+        start = Metrics.start();
+        printPossibleTiles(probabilities);
+        Metrics.record(Metrics.Phase.OUTPUT, start);
+    }
+
+    // Lê as candidatas que a partida mantém a cada jogada, sem recalculá-las
+    private void printPossibleTiles(double[][] probabilities) {
+        long[][] possibleTiles = liveGame.opponentPossibleTiles();
+        int principalPlayerIndex = liveGame.getPrincipal();
+        int opponent = 0;
         for (int i = 0; i < players.size(); i++) {
             if (i == principalPlayerIndex) continue;
             Player player = players.get(i);
-            Set<DominoTile> possibleTiles = new HashSet<>(allTiles);
-            possibleTiles.removeAll(player.getNotPossibleTiles());
-            System.out.println("🎲 Possíveis pedras para " + player.getName() + ": " + possibleTiles);
+            String formatted = probabilities == null
+                    ? TileSet.format(possibleTiles[opponent])
+                    : TileProbabilities.format(possibleTiles[opponent], probabilities[opponent]);
+            System.out.println("🎲 Possíveis pedras para " + player.getName() + ": " + formatted);
+            opponent++;
         }
     }
 
-    private boolean playTileOnTable(DominoTile tile, Scanner scanner) {
-        if (tableTiles.isEmpty()) {
-            tableTiles.add(tile);
-            end1 = tile.getSide1();
-            end2 = tile.getSide2();
-            return true;
-        }
-        boolean canPlaceLeft = tile.getSide1() == end1 || tile.getSide2() == end1;
-        boolean canPlaceRight = tile.getSide1() == end2 || tile.getSide2() == end2;
-        if (canPlaceLeft && canPlaceRight) {
-            System.out.print("A pedra pode ser colocada nos dois lados. Escolha o lado (E para esquerdo, D para direito): ");
-            String sideChoice = scanner.nextLine().trim().toUpperCase();
-            if (sideChoice.equals("E")) {
-                canPlaceRight = false; // Força o uso do lado esquerdo
-            } else if (sideChoice.equals("D")) {
-                canPlaceLeft = false; // Força o uso do lado direito
-            } else {
-                System.out.println("Escolha inválida. Usando o lado esquerdo por padrão.");
-                canPlaceRight = false;
-            }
-        }
-        if (canPlaceLeft) {
-            if (tile.getSide1() == end1) {
-                tableTiles.add(0, new DominoTile(tile.getSide2(), tile.getSide1()));
-                end1 = tile.getSide2();
-            } else {
-                tableTiles.add(0, tile);
-                end1 = tile.getSide1();
-            }
-            return true;
+    // No final, quando as mãos dos adversários já estão determinadas, a posição é resolvida exatamente
+    private boolean printEndgameSolution(EndgameSolver.Solution solution) {
+        if (solution == null) {
+            return false;
         }
-        if (canPlaceRight) {
-            if (tile.getSide1() == end2) {
-                tableTiles.add(tile);
-                end2 = tile.getSide2();
-            } else {
-                tableTiles.add(new DominoTile(tile.getSide2(), tile.getSide1()));
-                end2 = tile.getSide1();
+        System.out.println("♟️ Final resolvido: " + solution);
+        return true;
+    }
+
+    private void printAdvice(List<MoveAdvisor.MoveAdvice> advice, boolean pondered) {
+        if (advice.isEmpty()) {
+            System.out.println("💡 Nenhuma pedra encaixa: passe a vez.");
+        } else if (advice.get(0).trials == 0) {
+            System.out.println("💡 Não há distribuição de pedras coerente com o histórico para aconselhar.");
+        } else {
+            System.out.println("💡 Conselho (" + advisorBudgetMs + " ms" + (pondered ? ", calculado enquanto a mesa jogava" : "") + "):");
+            for (MoveAdvisor.MoveAdvice move : advice) {
+                System.out.println("   " + move);
             }
-            return true;
         }
-        return false;
     }
 
     private String formatTableTiles() {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < tableTiles.size(); i++) {
-            DominoTile tile = tableTiles.get(i);
-            if (i > 0) {
-                sb.append(" - "); // Conector visual entre as pedras
-            }
-            sb.append(tile);
-        }
-        return sb.toString().trim();
+        return liveGame.getTable().format();
     }
 
     private void displayGameHistory() {
-        if (gameHistory.isEmpty()) {
+        if (gameHistory.isEmpty() && leaderboard.isEmpty()) {
             System.out.println("\n--- 📋 Nenhuma partida registrada no histórico ---");
-        } else {
-            System.out.println("\n--- 📋 Histórico de Partidas ---");
-            for (GameRecord record : gameHistory) {
-                System.out.print("Partida #" + record.gameId + " - Jogadores: ");
-                for (Player player : record.players) {
-                    int rabbitCount = playerScores.get(player.getName()) / 4; // Coelhos
-                    int catCount = playerScores.get(player.getName()) % 4; // Gatos
-                    System.out.print(player.getName() + " (" + rabbitCount + " coelhos, " + catCount + " gatos) ");
-                }
-                System.out.println();
+            return;
+        }
+        System.out.println("\n--- 🏅 Classificação ---");
+        System.out.print(leaderboard.format());
+        if (!gameHistory.isEmpty()) {
+            System.out.println("\n--- 📋 Últimas Partidas ---");
+            for (GameRecord record : gameHistory.subList(Math.max(0, gameHistory.size() - HISTORY_SHOWN), gameHistory.size())) {
+                System.out.println("Partida #" + record.gameId + " - Jogadores: " + String.join(", ", record.playerNames)
+                        + " - Vencedor: " + (record.winnerName == null ? "nenhum (jogo fechado)" : record.winnerName));
             }
         }
     }
 
     private void resetGame() {
+        deleteCheckpoint();
         players.clear();
         gameHistory.clear();
-        tableTiles.clear();
+        liveGame = null;
         isGameActive = false;
         playerScores.clear();
         rabbitPoints = 0;
         catPoints = 0;
+        leaderboard.clearStats();
+        saveLeaderboard();
+        profiles.clear();
+        saveProfiles();
+        try {
+            matchLog.clear();
+        } catch (IOException e) {
+            System.out.println("Erro ao apagar o histórico salvo.");
+        }
         System.out.println("\n--- 🔄 Jogo reiniciado com sucesso! ---");
     }
 
     private void resetGameVariables() {
-        tableTiles.clear();
+        liveGame = null;
         isGameActive = false;
     }
 
@@ -401,18 +1062,10 @@ public class DominoGame {
         }
     }
 
-    private void removeTilesWithNumber(Player player, int number) {
-        Set<DominoTile> possibleTiles = generateAllTiles(); // Gera todas as pedras possíveis
-        possibleTiles.removeAll(player.getNotPossibleTiles()); // Remove as já impossíveis
-        for (DominoTile tile : possibleTiles) {
-            if (tile.getSide1() == number || tile.getSide2() == number) {
-                player.addToNotPossibleTiles(tile); // Adiciona ao conjunto de pedras impossíveis
-            }
-        }
-    }
-
-    private void simulatePredefinedGame() {
+    private void simulatePredefinedGame(Scanner scanner) {
         System.out.println("\n--- 🧪 Simulando um Jogo Predefinido ---");
+        System.out.print("Qual jogador joga os finais com perfeição? (1 a " + MAX_PLAYERS + ", 0 para nenhum): ");
+        int perfectPlayerIndex = getValidInput(scanner, 0, MAX_PLAYERS) - 1;
 
         // Criar jogadores fictícios
         List<Player> players = new ArrayList<>();
@@ -421,26 +1074,26 @@ public class DominoGame {
         }
 
         // Definir manualmente as pedras dos jogadores
-        List<DominoTile> player1Tiles = Arrays.asList(
-                new DominoTile(0, 0), new DominoTile(1, 1), new DominoTile(2, 2),
-                new DominoTile(3, 3), new DominoTile(4, 4), new DominoTile(5, 5),
-                new DominoTile(6, 6)
-        );
-        List<DominoTile> player2Tiles = Arrays.asList(
-                new DominoTile(0, 1), new DominoTile(1, 2), new DominoTile(2, 3),
-                new DominoTile(3, 4), new DominoTile(4, 5), new DominoTile(5, 6),
-                new DominoTile(0, 6)
-        );
-        List<DominoTile> player3Tiles = Arrays.asList(
-                new DominoTile(0, 2), new DominoTile(1, 3), new DominoTile(2, 4),
-                new DominoTile(3, 5), new DominoTile(4, 6), new DominoTile(0, 5),
-                new DominoTile(1, 6)
-        );
-        List<DominoTile> player4Tiles = Arrays.asList(
-                new DominoTile(0, 3), new DominoTile(1, 4), new DominoTile(2, 5),
-                new DominoTile(3, 6), new DominoTile(0, 4), new DominoTile(1, 5),
-                new DominoTile(2, 6)
-        );
+        List<DominoTile> player1Tiles = new ArrayList<>(Arrays.asList(
+                DominoTile.of(0, 0), DominoTile.of(1, 1), DominoTile.of(2, 2),
+                DominoTile.of(3, 3), DominoTile.of(4, 4), DominoTile.of(5, 5),
+                DominoTile.of(6, 6)
+        ));
+        List<DominoTile> player2Tiles = new ArrayList<>(Arrays.asList(
+                DominoTile.of(0, 1), DominoTile.of(1, 2), DominoTile.of(2, 3),
+                DominoTile.of(3, 4), DominoTile.of(4, 5), DominoTile.of(5, 6),
+                DominoTile.of(0, 6)
+        ));
+        List<DominoTile> player3Tiles = new ArrayList<>(Arrays.asList(
+                DominoTile.of(0, 2), DominoTile.of(1, 3), DominoTile.of(2, 4),
+                DominoTile.of(3, 5), DominoTile.of(4, 6), DominoTile.of(0, 5),
+                DominoTile.of(1, 6)
+        ));
+        List<DominoTile> player4Tiles = new ArrayList<>(Arrays.asList(
+                DominoTile.of(0, 3), DominoTile.of(1, 4), DominoTile.of(2, 5),
+                DominoTile.of(3, 6), DominoTile.of(0, 4), DominoTile.of(1, 5),
+                DominoTile.of(2, 6)
+        ));
 
         // Atribuir as pedras aos jogadores
         players.get(0).setDominoes(player1Tiles);
@@ -449,183 +1102,127 @@ public class DominoGame {
         players.get(3).setDominoes(player4Tiles);
 
         // Simular o jogo
-        simulateGame(players);
+        simulateGame(players, perfectPlayerIndex);
+        events.flush();
     }
 
-    private void simulateGame(List<Player> players) {
-        List<DominoTile> tableTiles = new ArrayList<>();
-        int end1 = -1, end2 = -1;
-
-        while (!isGameOver(players)) {
-            for (Player player : players) {
-                if (player.getDominoes().isEmpty()) continue;
-
-                Optional<DominoTile> playableTile = findPlayableTile(player.getDominoes(), end1, end2);
-                if (playableTile.isPresent()) {
-                    DominoTile tile = playableTile.get();
-                    playTileOnTable(tile, tableTiles, player);
-                    end1 = tableTiles.get(0).getSide1();
-                    end2 = tableTiles.get(tableTiles.size() - 1).getSide2();
-                    System.out.println(player.getName() + " jogou: " + tile);
-                } else {
-                    System.out.println(player.getName() + " passou a vez.");
-                }
-            }
+    private void runBatchSimulation(Scanner scanner) {
+        System.out.println("\n--- ⚡ Simulação em lote ---");
+        System.out.print("Quantas partidas? ");
+        int games = getValidInput(scanner, 1, Integer.MAX_VALUE);
+        System.out.print("Semente (Enter para aleatória): ");
+        String seedInput = scanner.nextLine().trim();
+        long seed;
+        try {
+            seed = seedInput.isEmpty() ? System.nanoTime() : Long.parseLong(seedInput);
+        } catch (NumberFormatException e) {
+            System.out.println("Semente inválida. Usando uma semente aleatória.");
+            seed = System.nanoTime();
         }
-
-        System.out.println("--- 🏁 Fim da Simulação ---");
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.print("Threads (1 a " + cores + "): ");
+        int threads = getValidInput(scanner, 1, cores);
+        printSimulation(dominoSet, GameEvents.NONE, games, seed, threads);
     }
 
-    private boolean isGameOver(List<Player> players) {
-        return players.stream().allMatch(player -> player.getDominoes().isEmpty());
-    }
+    // A escolha sai do GameState (a política de HeadlessSimulator.firstFitMove, sem criar objetos);
+    // a mão e o histórico dos jogadores só acompanham, para quem chamou ver a partida
+    void simulateGame(List<Player> players, int perfectPlayerIndex) {
+        GameState state = GameState.forSet(dominoSet);
+        long[] hand = TileSet.empty();
+        for (int i = 0; i < players.size(); i++) {
+            state.setHand(i, TileSet.of(players.get(i).getDominoes(), hand));
+        }
+        state.reset(0);
+        events.gameStarted(dominoSet, tableNames(players));
+        Metrics.GameSpan gameSpan = new Metrics.GameSpan();
+        gameSpan.begin();
+        long gameStart = Metrics.start();
 
-    private Optional<DominoTile> findPlayableTile(List<DominoTile> dominoes, int end1, int end2) {
-        return dominoes.stream()
-                .filter(tile -> end1 == -1 || tile.getSide1() == end1 || tile.getSide2() == end1 ||
-                        tile.getSide1() == end2 || tile.getSide2() == end2)
-                .findFirst();
-    }
+        while (true) {
+            int seat = state.turn();
+            // O jogador perfeito usa o solucionador de finais quando restam poucas pedras
+            EndgameSolver.Solution solution = seat == perfectPlayerIndex ? solveSimulatedEndgame(state) : null;
+            boolean solved = solution != null && solution.tile != null;
+            int move = solved
+                    ? GameState.move(solution.tile.ordinal(), !solution.left)
+                    : HeadlessSimulator.firstFitMove(state, seat);
 
-    private void playTileOnTable(DominoTile tile, List<DominoTile> tableTiles, Player player) {
-        if (tableTiles.isEmpty()) {
-            tableTiles.add(tile);
-        } else {
-            int end1 = tableTiles.get(0).getSide1();
-            int end2 = tableTiles.get(tableTiles.size() - 1).getSide2();
-
-            if (tile.getSide1() == end1) {
-                tableTiles.add(0, new DominoTile(tile.getSide2(), tile.getSide1()));
-            } else if (tile.getSide2() == end1) {
-                tableTiles.add(0, tile);
-            } else if (tile.getSide1() == end2) {
-                tableTiles.add(tile);
-            } else if (tile.getSide2() == end2) {
-                tableTiles.add(new DominoTile(tile.getSide2(), tile.getSide1()));
+            if (move == GameState.PASS) {
+                events.passed(seat);
+                state.apply(GameState.PASS);
+                Metrics.increment(Metrics.Counter.PASSES);
+                if (state.isBlocked()) {
+                    events.blocked(state.lowestPipSeat());
+                    gameSpan.result = Transcript.BLOCKED;
+                    break;
+                }
+                continue;
+            }
+            long start = Metrics.start();
+            state.apply(move);
+            players.get(seat).playTile(DominoTile.byOrdinal(GameState.tileOf(move)));
+            Metrics.record(Metrics.Phase.MOVE, start);
+            Metrics.increment(Metrics.Counter.MOVES);
+            gameSpan.moves++;
+            events.played(seat, GameState.tileOf(move), GameState.isRight(move), solved ? solution.value : GameEvents.NOT_SOLVED);
+            if (state.isHandEmpty(seat)) {
+                events.won(seat);
+                gameSpan.result = players.get(seat).getName();
+                break;
             }
         }
-        player.playTile(tile);
-    }
-}
-
-// Classes auxiliares
-class DominoTile {
-    private final int side1;
-    private final int side2;
-
-    public DominoTile(int side1, int side2) {
-        this.side1 = Math.min(side1, side2);
-        this.side2 = Math.max(side1, side2);
-    }
-
-    public int getSide1() {
-        return side1;
-    }
-
-    public int getSide2() {
-        return side2;
-    }
-
-    @Override
-    public String toString() {
-        return side1 + "/" + side2;
-    }
-
-    @Override
-    public boolean equals(Object obj) {
-        if (this == obj) return true;
-        if (obj == null || getClass() != obj.getClass()) return false;
-        DominoTile tile = (DominoTile) obj;
-        return side1 == tile.side1 && side2 == tile.side2;
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(side1, side2);
-    }
-}
-
-// Classe auxiliar GameRecord
-class GameRecord {
-    final int gameId;
-    final List<Player> players;
-
-    public GameRecord(int gameId, List<Player> players) {
-        this.gameId = gameId;
-        this.players = players;
-    }
-
-    public List<Player> getPlayers() {
-        return players;
-    }
-
-    @Override
-    public String toString() {
-        return "Partida #" + gameId + " - Jogadores: " +
-                players.stream()
-                        .map(Player::getName)
-                        .reduce((a, b) -> a + ", " + b)
-                        .orElse("");
-    }
-}
-
-class Player {
-    private String name;
-    private List<DominoTile> dominoes = new ArrayList<>();
-    private List<DominoTile> history = new ArrayList<>();
-    private Set<DominoTile> notPossibleTiles = new HashSet<>();
-    private int playCount = 0;
-
-    public Player(String name) {
-        this.name = name;
-    }
-
-    public String getName() {
-        return name;
-    }
-
-    public List<DominoTile> getDominoes() {
-        return dominoes;
-    }
-
-    public void setDominoes(List<DominoTile> dominoes) {
-        this.dominoes = dominoes;
-    }
-
-    public List<DominoTile> getHistory() {
-        return history;
-    }
-
-    public void playTile(DominoTile tile) {
-        dominoes.remove(tile);
-        history.add(tile);
-        playCount++;
-    }
-
-    public int getPlayCount() {
-        return playCount;
+        Metrics.record(Metrics.Phase.SIMULATED_GAME, gameStart);
+        Metrics.increment(Metrics.Counter.GAMES);
+        if (gameSpan.shouldCommit()) {
+            gameSpan.set = dominoSet.toString();
+            gameSpan.commit();
+        }
     }
 
-    public void addToHistory(DominoTile tile) {
-        history.add(tile);
+    // A mesma lista enquanto os nomes da mesa não mudam: ConsoleEvents só recodifica os nomes de uma lista nova
+    private List<String> tableNames(List<Player> players) {
+        boolean same = simulatedNames.size() == players.size();
+        for (int i = 0; same && i < players.size(); i++) {
+            same = simulatedNames.get(i).equals(players.get(i).getName());
+        }
+        if (!same) {
+            simulatedNames = players.stream().map(Player::getName).collect(Collectors.toUnmodifiableList());
+        }
+        return simulatedNames;
     }
 
-    public void addToNotPossibleTiles(DominoTile tile) {
-        notPossibleTiles.add(tile);
+    private EndgameSolver.Solution solveSimulatedEndgame(GameState state) {
+        int remainingTiles = 0;
+        for (int i = 0; i < GameState.PLAYERS; i++) {
+            remainingTiles += state.handSize(i);
+        }
+        if (remainingTiles > EndgameSolver.MAX_TILES) {
+            return null;
+        }
+        return endgameSolver.solve(state);
     }
 
-    public Set<DominoTile> getNotPossibleTiles() {
-        return notPossibleTiles;
+    // Primeira pedra da lista que encaixa em alguma ponta (mesa vazia: a primeira)
+    Optional<DominoTile> findPlayableTile(List<DominoTile> dominoes, int end1, int end2) {
+        for (int i = 0; i < dominoes.size(); i++) {
+            DominoTile tile = dominoes.get(i);
+            if (end1 == -1 || tile.getSide1() == end1 || tile.getSide2() == end1 ||
+                    tile.getSide1() == end2 || tile.getSide2() == end2) {
+                return Optional.of(tile);
+            }
+        }
+        return Optional.empty();
     }
 
-    public String getFormattedHistory() {
-        if (history.isEmpty()) {
-            return "Nenhuma jogada realizada ainda";
-        }
-        StringBuilder sb = new StringBuilder();
-        for (DominoTile tile : history) {
-            sb.append(tile).append(" ");
+    void playTileOnTable(DominoTile tile, boolean left, TableLine tableTiles, Player player) {
+        if (tableTiles.isEmpty()) {
+            tableTiles.addRight(tile, false);
+        } else if (left) {
+            tableTiles.addLeft(tile, tile.getSide1() == tableTiles.leftEnd());
+        } else {
+            tableTiles.addRight(tile, tile.getSide1() != tableTiles.rightEnd());
         }
-        return sb.toString().trim();
+        player.playTile(tile);
     }
 }
\ No newline at end of file
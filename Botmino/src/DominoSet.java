@@ -0,0 +1,77 @@
+// Conjunto de pedras de uma partida: todas as pedras x/y com x e y até maxPip, e quantas cada um dos
+// quatro jogadores recebe. No duplo-seis todas as pedras são distribuídas; nos maiores, as que sobram
+// "dormem" fora do jogo, e quem está de fora não sabe quais são.
+final class DominoSet {
+    static final int DOUBLE_SIX_HAND_SIZE = 7; // Constante para o JIT desenrolar a distribuição do duplo-seis
+    static final DominoSet DOUBLE_SIX = new DominoSet("duplo-seis", 6, DOUBLE_SIX_HAND_SIZE);
+    static final DominoSet DOUBLE_NINE = new DominoSet("duplo-nove", 9, 10);
+    static final DominoSet DOUBLE_TWELVE = new DominoSet("duplo-doze", 12, 12);
+
+    static final int MAX_HAND_SIZE = 12; // Limite das tabelas de TileProbabilities
+
+    private static final DominoSet[] SETS = {DOUBLE_SIX, DOUBLE_NINE, DOUBLE_TWELVE};
+
+    final String name;
+    final int maxPip;
+    final int tileCount;
+    final int handSize;
+    final int words; // Palavras das máscaras que têm pedras do conjunto: 1 no duplo-seis (ordinais até 63)
+    private final long[] tiles;
+
+    private DominoSet(String name, int maxPip, int handSize) {
+        this.name = name;
+        this.maxPip = maxPip;
+        this.tileCount = (maxPip + 1) * (maxPip + 2) / 2;
+        this.handSize = handSize;
+        this.tiles = TileSet.empty();
+        for (int index = 0; index < TileSet.TILE_COUNT; index++) {
+            if (contains(DominoTile.byOrdinal(index))) {
+                TileSet.add(tiles, index);
+            }
+        }
+        int used = 1;
+        for (int w = 0; w < TileSet.WORDS; w++) {
+            if (tiles[w] != 0) used = w + 1;
+        }
+        this.words = used;
+    }
+
+    // "duplo-seis", "duplo-nove" ou "duplo-doze"; IllegalArgumentException para outro nome
+    static DominoSet byName(String name) {
+        for (DominoSet set : SETS) {
+            if (set.name.equalsIgnoreCase(name)) {
+                return set;
+            }
+        }
+        throw new IllegalArgumentException("conjunto desconhecido '" + name + "' (use duplo-seis, duplo-nove ou duplo-doze)");
+    }
+
+    // Conjunto cujo maior número é maxPip, ou null
+    static DominoSet byMaxPip(int maxPip) {
+        for (DominoSet set : SETS) {
+            if (set.maxPip == maxPip) {
+                return set;
+            }
+        }
+        return null;
+    }
+
+    boolean contains(DominoTile tile) {
+        return !tile.isPassMarker() && tile.getSide1() <= maxPip && tile.getSide2() <= maxPip;
+    }
+
+    // Cópia da máscara com todas as pedras do conjunto
+    long[] tiles() {
+        return TileSet.copy(tiles);
+    }
+
+    // Pedras que ficam fora das mãos
+    int sleeping() {
+        return tileCount - GameState.PLAYERS * handSize;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,97 @@
+// Pedra de dominó. As pedras, até as do duplo-doze, são instâncias canônicas obtidas por DominoTile.of(a, b);
+// cada partida só aceita as do seu conjunto (DominoSet)
+class DominoTile {
+    private static final DominoTile[] TILES = new DominoTile[TileSet.TILE_COUNT];
+    private static final DominoTile[][] BY_SIDES = new DominoTile[TileSet.MAX_PIP + 1][TileSet.MAX_PIP + 1];
+    // Marcadores de passe: as pontas da mesa no momento do passe, registradas como valores negativos
+    private static final DominoTile[][] PASS_MARKERS = new DominoTile[TileSet.MAX_PIP + 1][TileSet.MAX_PIP + 1];
+
+    static {
+        int ordinal = 0;
+        for (int i = 0; i <= TileSet.MAX_PIP; i++) {
+            for (int j = i; j <= TileSet.MAX_PIP; j++) {
+                DominoTile tile = new DominoTile(i, j, ordinal);
+                TILES[ordinal++] = tile;
+                BY_SIDES[i][j] = tile;
+                BY_SIDES[j][i] = tile;
+                DominoTile marker = new DominoTile(-j, -i, -1);
+                PASS_MARKERS[i][j] = marker;
+                PASS_MARKERS[j][i] = marker;
+            }
+        }
+    }
+
+    private final int side1;
+    private final int side2;
+    private final int ordinal;
+    private final int pipSum;
+    private final boolean isDouble;
+
+    private DominoTile(int side1, int side2, int ordinal) {
+        this.side1 = side1;
+        this.side2 = side2;
+        this.ordinal = ordinal;
+        this.pipSum = side1 + side2;
+        this.isDouble = side1 == side2;
+    }
+
+    public static DominoTile of(int side1, int side2) {
+        if (!TileSet.isValid(side1, side2)) {
+            throw new IllegalArgumentException("Pedra inválida! O valor das pedras deve ser entre 0 e " + TileSet.MAX_PIP + ".");
+        }
+        return BY_SIDES[side1][side2];
+    }
+
+    public static DominoTile byOrdinal(int ordinal) {
+        return TILES[ordinal];
+    }
+
+    // As pontas valem -1 com a mesa vazia, por isso o valor absoluto
+    public static DominoTile passMarker(int end1, int end2) {
+        return PASS_MARKERS[Math.abs(end1)][Math.abs(end2)];
+    }
+
+    public int getSide1() {
+        return side1;
+    }
+
+    public int getSide2() {
+        return side2;
+    }
+
+    // Índice denso 0..90, linha a linha (0/0, 0/1, ..., 0/12, 1/1, ...): as pedras do duplo-seis mantêm a
+    // ordem entre si e cabem na primeira palavra das máscaras; -1 para marcadores de passe
+    public int ordinal() {
+        return ordinal;
+    }
+
+    public int getPipSum() {
+        return pipSum;
+    }
+
+    public boolean isDouble() {
+        return isDouble;
+    }
+
+    public boolean isPassMarker() {
+        return ordinal < 0;
+    }
+
+    @Override
+    public String toString() {
+        return side1 + "/" + side2;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        DominoTile tile = (DominoTile) obj;
+        return side1 == tile.side1 && side2 == tile.side2;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * side1 + side2;
+    }
+}
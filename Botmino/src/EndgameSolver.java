@@ -0,0 +1,230 @@
+// Solucionador de finais com informação perfeita: minimax com poda alfa-beta sobre
+// (mãos, pontas, jogador da vez, passes seguidos), do ponto de vista de um jogador contra os demais.
+// Usa tabela de transposição com hash de Zobrist (tamanho fixo, baldes de duas entradas: uma
+// preferindo a subárvore mais profunda e outra sempre substituída) e ordenação de jogadas.
+// Os valores guardados são do ponto de vista do jogador da raiz, então ele também entra no hash:
+// a tabela fica entre chamadas e serve a qualquer jogador.
+final class EndgameSolver {
+    static final int MAX_TILES = 16; // Total de pedras nas mãos a partir do qual vale a pena resolver
+    static final int WIN = 1;
+    static final int DRAW = 0;
+    static final int LOSS = -1;
+
+    private static final int PLAYERS = GameState.PLAYERS;
+    private static final int NO_MOVE = -1;
+    private static final byte EXACT = 0;
+    private static final byte LOWER = 1;
+    private static final byte UPPER = 2;
+    // Cada pedra jogada vem depois de no máximo três passes; as posições resolvidas têm até MAX_TILES pedras
+    private static final int MAX_PLY = 4 * MAX_TILES + PLAYERS;
+
+    private static final long[][] TILE_KEYS = new long[PLAYERS][TileSet.TILE_COUNT];
+    private static final long[] END1_KEYS = new long[TileSet.MAX_PIP + 2];
+    private static final long[] END2_KEYS = new long[TileSet.MAX_PIP + 2];
+    private static final long[] TURN_KEYS = new long[PLAYERS];
+    private static final long[] PASS_KEYS = new long[PLAYERS + 1];
+    private static final long[] ROOT_KEYS = new long[PLAYERS];
+
+    static {
+        SplitMix64 random = new SplitMix64(0x5EED_D0D0L);
+        for (long[] keys : TILE_KEYS) {
+            fill(keys, random);
+        }
+        fill(END1_KEYS, random);
+        fill(END2_KEYS, random);
+        fill(TURN_KEYS, random);
+        fill(PASS_KEYS, random);
+        fill(ROOT_KEYS, random);
+    }
+
+    // Melhor jogada encontrada (tile null quando só resta passar) e resultado garantido
+    static final class Solution {
+        final DominoTile tile;
+        final boolean left;
+        final int value;
+
+        Solution(DominoTile tile, boolean left, int value) {
+            this.tile = tile;
+            this.left = left;
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return (tile == null ? "passe a vez" : "jogue " + tile + " (" + (left ? "E" : "D") + ")") + " — " + outcome(value);
+        }
+
+        static String outcome(int value) {
+            return value == WIN ? "vitória garantida" : value == DRAW ? "empate no melhor caso" : "derrota contra defesa perfeita";
+        }
+    }
+
+    private final long[] ttKeys;
+    private final byte[] ttValues;
+    private final byte[] ttFlags;
+    private final byte[] ttDepths;
+    private final byte[] ttMoves;
+    private final int ttMask;
+    private final GameState state = new GameState();
+    private final int[][] moves = new int[MAX_PLY][GameState.MAX_MOVES];
+    private final int[][] scores = new int[MAX_PLY][GameState.MAX_MOVES];
+    private int rootSeat;
+    private int rootMove;
+    private long nodes;
+
+    EndgameSolver() {
+        this(18);
+    }
+
+    EndgameSolver(int tableBits) {
+        int size = 1 << tableBits;
+        ttKeys = new long[size];
+        ttValues = new byte[size];
+        ttFlags = new byte[size];
+        ttDepths = new byte[size];
+        ttMoves = new byte[size];
+        ttMask = size - 1;
+    }
+
+    // Resolve a posição para quem está na vez. A tabela é mantida entre chamadas, separada por jogador da raiz
+    Solution solve(GameState position) {
+        state.copyFrom(position);
+        rootSeat = state.turn();
+        nodes = 0;
+        long handsHash = 0;
+        for (int player = 0; player < PLAYERS; player++) {
+            long[] hand = state.getHand(player);
+            for (int tile = TileSet.next(hand, 0); tile >= 0; tile = TileSet.next(hand, tile + 1)) {
+                handsHash ^= TILE_KEYS[player][tile];
+            }
+        }
+        int value = search(handsHash, LOSS, WIN, 0);
+        if (rootMove == NO_MOVE) {
+            return new Solution(null, true, value);
+        }
+        return new Solution(DominoTile.byOrdinal(GameState.tileOf(rootMove)), !GameState.isRight(rootMove), value);
+    }
+
+    long getNodes() {
+        return nodes;
+    }
+
+    private int search(long handsHash, int alpha, int beta, int ply) {
+        nodes++;
+        long hash = hash(handsHash);
+        int slot = probe(hash);
+        int ttMove = NO_MOVE;
+        if (slot >= 0) {
+            ttMove = ttMoves[slot] & 0xFF; // Jogadas vão até 181; NO_MOVE volta como 255, que não casa com nenhuma
+        }
+        // Na raiz a busca sempre continua, para devolver a melhor jogada
+        if (slot >= 0 && ply > 0) {
+            int value = ttValues[slot];
+            byte flag = ttFlags[slot];
+            if (flag == EXACT) return value;
+            if (flag == LOWER) alpha = Math.max(alpha, value);
+            else beta = Math.min(beta, value);
+            if (alpha >= beta) return value;
+        }
+        int alphaStart = alpha;
+        int betaStart = beta;
+        int seat = state.turn();
+        boolean maximizing = seat == rootSeat;
+        int count = generate(ttMove, ply);
+        int[] plyMoves = moves[ply];
+        int best = maximizing ? LOSS - 1 : WIN + 1;
+        int bestMove = NO_MOVE;
+        for (int i = 0; i < count; i++) {
+            int move = plyMoves[i];
+            long token = state.apply(move);
+            int value;
+            if (move == GameState.PASS) {
+                // O quarto passe seguido fecha o jogo
+                value = state.isBlocked() ? blockedValue() : search(handsHash, alpha, beta, ply + 1);
+            } else if (state.isHandEmpty(seat)) {
+                value = seat == rootSeat ? WIN : LOSS;
+            } else {
+                value = search(handsHash ^ TILE_KEYS[seat][GameState.tileOf(move)], alpha, beta, ply + 1);
+            }
+            state.undo(move, token);
+            if (maximizing ? value > best : value < best) {
+                best = value;
+                bestMove = move == GameState.PASS ? NO_MOVE : move;
+            }
+            if (maximizing) alpha = Math.max(alpha, value);
+            else beta = Math.min(beta, value);
+            if (alpha >= beta) break;
+        }
+        if (ply == 0) {
+            rootMove = bestMove;
+        }
+        byte flag = best <= alphaStart ? UPPER : best >= betaStart ? LOWER : EXACT;
+        store(hash, best, flag, bestMove);
+        return best;
+    }
+
+    // Ordena as jogadas legais: jogada da tabela, duplas e pedras pesadas primeiro
+    private int generate(int ttMove, int ply) {
+        int[] plyMoves = moves[ply];
+        int[] plyScores = scores[ply];
+        int count = state.legalMoves(plyMoves);
+        for (int i = 0; i < count; i++) {
+            int move = plyMoves[i];
+            int score = 0;
+            if (move == ttMove) {
+                score = Integer.MAX_VALUE;
+            } else if (move != GameState.PASS) {
+                int tile = GameState.tileOf(move);
+                int a = TileSet.side1(tile);
+                int b = TileSet.side2(tile);
+                score = (a == b ? 32 : 0) + a + b;
+            }
+            // Ordenação por inserção: no máximo algumas dezenas de jogadas
+            int j = i;
+            while (j > 0 && plyScores[j - 1] < score) {
+                plyMoves[j] = plyMoves[j - 1];
+                plyScores[j] = plyScores[j - 1];
+                j--;
+            }
+            plyMoves[j] = move;
+            plyScores[j] = score;
+        }
+        return count;
+    }
+
+    // Jogo fechado: vence quem tem menos pontos na mão; empate se houver dois com o mínimo
+    private int blockedValue() {
+        int winner = state.lowestPipSeat();
+        return winner == rootSeat ? WIN : winner == GameState.NO_WINNER ? DRAW : LOSS;
+    }
+
+    private int probe(long hash) {
+        int bucket = (int) hash & ttMask & ~1;
+        if (ttKeys[bucket] == hash) return bucket;
+        if (ttKeys[bucket + 1] == hash) return bucket + 1;
+        return -1;
+    }
+
+    private void store(long hash, int value, byte flag, int move) {
+        int bucket = (int) hash & ttMask & ~1;
+        int depth = state.handSize(0) + state.handSize(1) + state.handSize(2) + state.handSize(3);
+        // Entrada 0 guarda a subárvore mais profunda; a entrada 1 é sempre substituída
+        int slot = ttKeys[bucket] == hash || depth >= ttDepths[bucket] ? bucket : bucket + 1;
+        ttKeys[slot] = hash;
+        ttValues[slot] = (byte) value;
+        ttFlags[slot] = flag;
+        ttDepths[slot] = (byte) depth;
+        ttMoves[slot] = (byte) move;
+    }
+
+    private long hash(long handsHash) {
+        return handsHash ^ END1_KEYS[state.end1() + 1] ^ END2_KEYS[state.end2() + 1]
+                ^ TURN_KEYS[state.turn()] ^ PASS_KEYS[state.passes()] ^ ROOT_KEYS[rootSeat];
+    }
+
+    private static void fill(long[] keys, SplitMix64 random) {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+    }
+}
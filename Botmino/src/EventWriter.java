@@ -0,0 +1,67 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Escreve lotes de bytes num destino numa única thread de fundo, na ordem em que chegam. Vários
+// BufferedGameEvents (um por thread) podem dividir o mesmo escritor; cada lote é escrito inteiro.
+final class EventWriter {
+    private final OutputStream out;
+    private final boolean closeOut; // System.out não é fechado
+    private final AtomicLong games = new AtomicLong();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "eventos");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    EventWriter(OutputStream out, boolean closeOut) {
+        this.out = out;
+        this.closeOut = closeOut;
+    }
+
+    // Número da próxima partida registrada neste destino, a partir de 1
+    long nextGame() {
+        return games.incrementAndGet();
+    }
+
+    // O lote não pode ser mexido até o Future terminar
+    Future<?> write(byte[] batch, int length) {
+        return worker.submit(() -> {
+            out.write(batch, 0, length);
+            out.flush();
+            return null;
+        });
+    }
+
+    void close() {
+        worker.shutdown();
+        try {
+            worker.awaitTermination(1, TimeUnit.MINUTES);
+            if (closeOut) {
+                out.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Espera o lote e repassa o erro de escrita, se houve
+    static void await(Future<?> pending) {
+        try {
+            pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? new UncheckedIOException((IOException) cause) : new IllegalStateException(cause);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Análise pós-partida: reproduz partidas terminadas (transcrições) e, em cada vez do principal com mais
+// de uma jogada legal, compara a jogada feita com a melhor segundo MoveAdvisor.evaluate. A perda é a
+// diferença de chance de vitória entre as duas; a precisão da partida é 100% menos a perda média.
+// As partidas são analisadas em paralelo, com um cache de avaliações compartilhado e limitado. Os
+// sorteios de cada posição são semeados pela própria posição, então repetir a análise dá o mesmo relatório.
+final class GameAnalyzer {
+    static final int DEFAULT_SAMPLES = 2000;
+    static final int MAX_ENTRIES = 4096;
+    // Diferenças menores que isso ficam dentro do ruído das simulações e não contam como perda
+    static final double TOLERANCE = 0.01;
+
+    // Uma vez do principal: a jogada feita e a melhor, com suas chances de vitória
+    static final class Decision {
+        final int moveNumber; // Posição na lista de jogadas da transcrição, a partir de 1
+        final MoveAdvisor.MoveAdvice chosen;
+        final MoveAdvisor.MoveAdvice best;
+
+        Decision(int moveNumber, MoveAdvisor.MoveAdvice chosen, MoveAdvisor.MoveAdvice best) {
+            this.moveNumber = moveNumber;
+            this.chosen = chosen;
+            this.best = best;
+        }
+
+        double getLoss() {
+            double loss = best.getWinRate() - chosen.getWinRate();
+            return loss < TOLERANCE ? 0 : loss;
+        }
+
+        @Override
+        public String toString() {
+            String move = String.format("jogada %d: %s (%s) %.1f%%", moveNumber, chosen.tile, chosen.left ? "E" : "D",
+                    chosen.getWinRate() * 100);
+            if (getLoss() == 0) {
+                return move + " ✓";
+            }
+            return String.format("%s — melhor %s (%s) %.1f%%, perda de %.1f pontos", move, best.tile,
+                    best.left ? "E" : "D", best.getWinRate() * 100, getLoss() * 100);
+        }
+    }
+
+    static final class GameReport {
+        final String name;
+        final List<Decision> decisions = new ArrayList<>();
+        String problem; // Transcrição ilegível ou jogada recusada; as decisões até ali continuam valendo
+
+        GameReport(String name) {
+            this.name = name;
+        }
+
+        double getTotalLoss() {
+            double total = 0;
+            for (Decision decision : decisions) {
+                total += decision.getLoss();
+            }
+            return total;
+        }
+
+        // Em %, ou NaN se o principal nunca teve escolha
+        double getAccuracy() {
+            return decisions.isEmpty() ? Double.NaN : 100 * (1 - getTotalLoss() / decisions.size());
+        }
+
+        String format() {
+            StringBuilder sb = new StringBuilder(name).append(": ");
+            if (decisions.isEmpty()) {
+                sb.append("nenhuma decisão do principal");
+            } else {
+                sb.append(String.format("precisão %.1f%% em %d decisões", getAccuracy(), decisions.size()));
+            }
+            if (problem != null) {
+                sb.append(" (").append(problem).append(')');
+            }
+            for (Decision decision : decisions) {
+                sb.append(System.lineSeparator()).append("  ").append(decision);
+            }
+            return sb.toString();
+        }
+    }
+
+    static final class Report {
+        final List<GameReport> games = new ArrayList<>();
+        long evaluations;
+        long cacheHits;
+        long nanos;
+
+        String format() {
+            StringBuilder sb = new StringBuilder();
+            int decisions = 0;
+            int graded = 0;
+            double accuracy = 0;
+            double loss = 0;
+            for (GameReport game : games) {
+                sb.append(game.format()).append(System.lineSeparator());
+                decisions += game.decisions.size();
+                loss += game.getTotalLoss();
+                if (!game.decisions.isEmpty()) {
+                    graded++;
+                    accuracy += game.getAccuracy();
+                }
+            }
+            double seconds = nanos / 1e9;
+            sb.append(String.format("Partidas: %d, decisões: %d, precisão média: %.1f%%, perda média: %.2f pontos por decisão%n",
+                    games.size(), decisions, graded == 0 ? 0 : accuracy / graded, decisions == 0 ? 0 : loss / decisions * 100));
+            sb.append(String.format("Posições avaliadas: %d (%d do cache)%n", evaluations, cacheHits));
+            sb.append(String.format("Tempo: %.3f s (%.0f partidas por segundo)", seconds,
+                    seconds > 0 ? games.size() / seconds : 0));
+            return sb.toString();
+        }
+    }
+
+    private final int samples;
+    private final AtomicLong evaluations = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    // Avaliações são determinísticas: duas threads calculando a mesma posição chegam ao mesmo resultado
+    private final Map<PositionKey, List<MoveAdvisor.MoveAdvice>> cache = Collections.synchronizedMap(
+            new LinkedHashMap<PositionKey, List<MoveAdvisor.MoveAdvice>>(MAX_ENTRIES, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<PositionKey, List<MoveAdvisor.MoveAdvice>> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            });
+
+    GameAnalyzer(int samples) {
+        if (samples <= 0) {
+            throw new IllegalArgumentException("o número de simulações deve ser positivo");
+        }
+        this.samples = samples;
+    }
+
+    // Aceita um diretório (todas as transcrições .dom, em ordem de nome) ou um único arquivo
+    Report analyze(Path path, int threads) throws IOException {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("o número de threads deve ser positivo");
+        }
+        List<Path> files = TranscriptReplayer.files(path);
+        long start = System.nanoTime();
+        List<Callable<GameReport>> tasks = new ArrayList<>();
+        for (Path file : files) {
+            tasks.add(() -> analyze(file));
+        }
+        Report report = new Report();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (Future<GameReport> result : pool.invokeAll(tasks)) {
+                report.games.add(result.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao analisar as partidas.", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        report.nanos = System.nanoTime() - start;
+        report.evaluations = evaluations.get();
+        report.cacheHits = cacheHits.get();
+        return report;
+    }
+
+    private GameReport analyze(Path file) {
+        Transcript transcript;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            transcript = Transcript.parse(reader);
+        } catch (IllegalArgumentException | IOException e) {
+            GameReport report = new GameReport(file.getFileName().toString());
+            report.problem = "transcrição ilegível: " + e.getMessage();
+            return report;
+        }
+        return analyze(file.getFileName().toString(), transcript);
+    }
+
+    // Reproduz a partida pelas regras do LiveGame, avaliando cada vez do principal antes da jogada feita.
+    // Diferente do TranscriptReplayer, para na primeira jogada recusada: dali em diante a posição não é a real
+    GameReport analyze(String name, Transcript transcript) {
+        GameReport report = new GameReport(name);
+        List<Player> players = new ArrayList<>();
+        for (String playerName : transcript.players) {
+            players.add(new Player(playerName));
+        }
+        players.get(transcript.principal).setDominoes(new ArrayList<>(transcript.hand));
+        LiveGame game = new LiveGame(transcript.set, players, transcript.principal, transcript.starter);
+        List<String> moves = transcript.moves;
+        int[] legal = new int[GameState.MAX_MOVES];
+        for (int i = 0; i < moves.size() && !game.isOver(); i++) {
+            String token = moves.get(i);
+            int moveNumber = i + 1;
+            if (token.equalsIgnoreCase("p")) {
+                game.pass();
+                continue;
+            }
+            // Só vale avaliar quando o principal tem escolha
+            List<MoveAdvisor.MoveAdvice> options = game.currentSeat() == game.getPrincipal()
+                    && game.getState().legalMoves(legal) > 1 ? evaluate(game) : null;
+            DominoTile tile;
+            LiveGame.Outcome outcome;
+            try {
+                tile = Transcript.parseTile(token);
+                outcome = game.play(tile, LiveGame.Side.ANY);
+                if (outcome == LiveGame.Outcome.NEEDS_SIDE) {
+                    String side = i + 1 < moves.size() ? moves.get(++i) : "";
+                    outcome = game.play(tile, side.equalsIgnoreCase("D") ? LiveGame.Side.RIGHT : LiveGame.Side.LEFT);
+                }
+            } catch (IllegalArgumentException e) {
+                report.problem = "jogada " + moveNumber + ": " + e.getMessage();
+                break;
+            }
+            if (outcome != LiveGame.Outcome.PLAYED && outcome != LiveGame.Outcome.WON) {
+                report.problem = "jogada " + moveNumber + " (" + token + ") recusada";
+                break;
+            }
+            if (options != null) {
+                boolean left = game.getEvents().get(game.getEvents().size() - 1).left;
+                report.decisions.add(new Decision(moveNumber, find(options, tile, left), best(options)));
+            }
+        }
+        return report;
+    }
+
+    private List<MoveAdvisor.MoveAdvice> evaluate(LiveGame game) {
+        PositionKey key = new PositionKey(game);
+        List<MoveAdvisor.MoveAdvice> options = cache.get(key);
+        if (options != null) {
+            cacheHits.incrementAndGet();
+            return options;
+        }
+        evaluations.incrementAndGet();
+        options = game.evaluate(samples, key.mix());
+        cache.put(key, options);
+        return options;
+    }
+
+    // A jogada feita entre as avaliadas. O lado só distingue quando a pedra gerou duas jogadas: com a mesa
+    // vazia ou uma ponta só possível, o lado registrado pelo LiveGame não precisa bater com o de legalMoves
+    private static MoveAdvisor.MoveAdvice find(List<MoveAdvisor.MoveAdvice> options, DominoTile tile, boolean left) {
+        MoveAdvisor.MoveAdvice found = null;
+        for (MoveAdvisor.MoveAdvice option : options) {
+            if (option.tile.equals(tile) && (found == null || option.left == left)) {
+                found = option;
+            }
+        }
+        return found;
+    }
+
+    private static MoveAdvisor.MoveAdvice best(List<MoveAdvisor.MoveAdvice> options) {
+        MoveAdvisor.MoveAdvice best = options.get(0);
+        for (MoveAdvisor.MoveAdvice option : options) {
+            if (option.getWinRate() > best.getWinRate()) {
+                best = option;
+            }
+        }
+        return best;
+    }
+}
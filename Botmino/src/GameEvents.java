@@ -0,0 +1,94 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+
+// Destino dos eventos de uma partida (jogadas, passes, fim). As implementações trocam só o formato:
+// console das simulações, nada, JSON em linhas ou traço binário. Quem emite passa só números, então
+// nenhuma jogada monta texto; o formato é escrito num buffer que vai para o disco numa thread de fundo.
+// Uma instância não é thread-safe: cada thread usa a sua, obtida com fork().
+interface GameEvents {
+    int NOT_SOLVED = Integer.MIN_VALUE; // Jogada escolhida sem o solucionador de finais
+
+    // Descarta tudo; a simulação em lote não paga nada por emitir
+    GameEvents NONE = new GameEvents() {
+        @Override
+        public void gameStarted(DominoSet set, List<String> names) {
+        }
+
+        @Override
+        public void played(int seat, int tile, boolean right, int solved) {
+        }
+
+        @Override
+        public void passed(int seat) {
+        }
+
+        @Override
+        public void undone() {
+        }
+
+        @Override
+        public void won(int seat) {
+        }
+
+        @Override
+        public void blocked(int winner) {
+        }
+
+        @Override
+        public GameEvents fork() {
+            return this;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    void gameStarted(DominoSet set, List<String> names);
+
+    // solved: valor de EndgameSolver (WIN, DRAW, LOSS) se a jogada veio do solucionador, senão NOT_SOLVED
+    void played(int seat, int tile, boolean right, int solved);
+
+    void passed(int seat);
+
+    // A última jogada foi desfeita
+    void undone();
+
+    // seat bateu
+    void won(int seat);
+
+    // Jogo fechado; winner é quem tem menos pontos, ou GameState.NO_WINNER no empate e nas partidas ao
+    // vivo, em que as mãos dos adversários não são conhecidas
+    void blocked(int winner);
+
+    // Outra instância que escreve no mesmo destino, para outra thread. Partidas inteiras não se misturam
+    GameEvents fork();
+
+    // Espera o que já foi emitido chegar ao destino
+    void flush();
+
+    // Descarrega e fecha o destino; as instâncias de fork() não podem mais ser usadas
+    void close();
+
+    // "console", "nenhum", "jsonl:<arquivo>" ou "binario:<arquivo>"
+    static GameEvents open(String spec) throws IOException {
+        if (spec.equals("console")) {
+            return new ConsoleEvents(System.out);
+        }
+        if (spec.equals("nenhum")) {
+            return NONE;
+        }
+        if (spec.startsWith("jsonl:")) {
+            return new JsonLinesEvents(Paths.get(spec.substring("jsonl:".length())));
+        }
+        if (spec.startsWith("binario:")) {
+            return new BinaryTraceEvents(Paths.get(spec.substring("binario:".length())));
+        }
+        throw new IllegalArgumentException("destino de eventos desconhecido '" + spec + "' (use console, nenhum, jsonl:<arquivo> ou binario:<arquivo>)");
+    }
+}
@@ -0,0 +1,22 @@
+import java.util.List;
+
+class GameRecord {
+    final int gameId;
+    final List<String> playerNames;
+    final String winnerName; // null em todo jogo fechado, empatado ou não: a partida fica sem vencedor
+
+    public GameRecord(int gameId, List<String> playerNames, String winnerName) {
+        this.gameId = gameId;
+        this.playerNames = playerNames;
+        this.winnerName = winnerName;
+    }
+
+    public List<String> getPlayerNames() {
+        return playerNames;
+    }
+
+    @Override
+    public String toString() {
+        return "Partida #" + gameId + " - Jogadores: " + String.join(", ", playerNames);
+    }
+}
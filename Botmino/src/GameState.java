@@ -0,0 +1,284 @@
+// Estado compacto de uma partida: as máscaras das quatro mãos (TileSet.WORDS palavras cada, lado a lado
+// num só long[]) e um long com pontas, vez e passes seguidos. Jogadas são ints (pedra << 1 | lado
+// direito, ou PASS); apply devolve o estado anterior das pontas, que undo usa para voltar atrás.
+// Nada aqui aloca objetos depois da construção, exceto getHand, que devolve uma cópia.
+// O estado não depende do conjunto de pedras: ele só vê as pedras que estão nas mãos. forSet escolhe
+// OneWord quando todas as pedras do conjunto cabem na palavra 0 (duplo-seis).
+class GameState {
+    static final int PLAYERS = 4;
+    static final int PASS = 2 * TileSet.TILE_COUNT;
+    static final int NO_WINNER = -1; // Jogo fechado empatado ou partida em andamento
+
+    static final int MAX_MOVES = 2 * TileSet.TILE_COUNT;
+    private static final int WORDS = TileSet.WORDS;
+    private static final long[] PIP_MASKS = new long[(TileSet.MAX_PIP + 1) * WORDS]; // Máscaras por número, achatadas
+
+    static {
+        for (int pip = 0; pip <= TileSet.MAX_PIP; pip++) {
+            for (int w = 0; w < WORDS; w++) {
+                PIP_MASKS[pip * WORDS + w] = TileSet.pipWord(pip, w);
+            }
+        }
+    }
+
+    // meta: bits 0-3 ponta esquerda + 1, bits 4-7 ponta direita + 1, bits 8-9 vez, bits 10-12 passes
+    private final long[] hands = new long[PLAYERS * WORDS];
+    private long meta;
+
+    GameState() {
+        reset(0);
+    }
+
+    static GameState forSet(DominoSet set) {
+        return set.words == 1 ? new OneWord() : new GameState();
+    }
+
+    // Estado vazio da mesma forma que other, para copyFrom
+    static GameState like(GameState other) {
+        return other instanceof OneWord ? new OneWord() : new GameState();
+    }
+
+    // Mesa vazia, sem passes, com seat na vez; as mãos não mudam
+    void reset(int seat) {
+        meta = pack(-1, -1, seat, 0);
+    }
+
+    void setPosition(int end1, int end2, int seat, int passes) {
+        meta = pack(end1, end2, seat, passes);
+    }
+
+    void copyFrom(GameState other) {
+        System.arraycopy(other.hands, 0, hands, 0, hands.length);
+        meta = other.meta;
+    }
+
+    // Cópia da mão de seat
+    long[] getHand(int seat) {
+        long[] hand = TileSet.empty();
+        System.arraycopy(hands, seat * WORDS, hand, 0, WORDS);
+        return hand;
+    }
+
+    long handWord(int seat, int word) {
+        return hands[seat * WORDS + word];
+    }
+
+    void setHand(int seat, long[] hand) {
+        System.arraycopy(hand, 0, hands, seat * WORDS, WORDS);
+    }
+
+    // Mão que cabe na palavra 0 (duplo-seis), sem passar por um long[]
+    void setHand(int seat, long firstWord) {
+        hands[seat * WORDS] = firstWord;
+        for (int w = 1; w < WORDS; w++) {
+            hands[seat * WORDS + w] = 0;
+        }
+    }
+
+    boolean isHandEmpty(int seat) {
+        for (int w = 0; w < WORDS; w++) {
+            if (hands[seat * WORDS + w] != 0) return false;
+        }
+        return true;
+    }
+
+    int handSize(int seat) {
+        int size = 0;
+        for (int w = 0; w < WORDS; w++) {
+            size += Long.bitCount(hands[seat * WORDS + w]);
+        }
+        return size;
+    }
+
+    int end1() {
+        return (int) (meta & 0xF) - 1;
+    }
+
+    int end2() {
+        return (int) (meta >>> 4 & 0xF) - 1;
+    }
+
+    int turn() {
+        return (int) (meta >>> 8 & 0x3);
+    }
+
+    int passes() {
+        return (int) (meta >>> 10 & 0x7);
+    }
+
+    boolean isBlocked() {
+        return passes() >= PLAYERS;
+    }
+
+    // Palavra word das pedras da mão de seat que encaixam em alguma ponta
+    long playableTiles(int seat, int word) {
+        int end1 = end1();
+        long hand = hands[seat * WORDS + word];
+        return end1 < 0 ? hand : hand & (PIP_MASKS[end1 * WORDS + word] | PIP_MASKS[end2() * WORDS + word]);
+    }
+
+    static boolean fits(int tile, int end) {
+        return TileSet.side1(tile) == end || TileSet.side2(tile) == end;
+    }
+
+    // Menor pedra da mão de seat que encaixa em alguma ponta, ou -1
+    int firstPlayableTile(int seat) {
+        for (int w = 0; w < WORDS; w++) {
+            long playable = playableTiles(seat, w);
+            if (playable != 0) {
+                return w << 6 | Long.numberOfTrailingZeros(playable);
+            }
+        }
+        return -1;
+    }
+
+    // Escreve as jogadas legais de quem está na vez; sem pedra que encaixe, a única jogada é PASS
+    int legalMoves(int[] out) {
+        int seat = turn();
+        int count = 0;
+        for (int w = 0; w < WORDS; w++) {
+            count = addMoves(playableTiles(seat, w), w, out, count);
+        }
+        if (count == 0) {
+            out[count++] = PASS;
+        }
+        return count;
+    }
+
+    // Acrescenta a out as jogadas das pedras de playable (palavra word) e devolve o novo total
+    final int addMoves(long playable, int word, int[] out, int count) {
+        int end1 = end1();
+        int end2 = end2();
+        for (long rest = playable; rest != 0; rest &= rest - 1) {
+            int tile = word << 6 | Long.numberOfTrailingZeros(rest);
+            if (end1 < 0 || fits(tile, end1)) {
+                out[count++] = tile << 1;
+            }
+            // Pedra que encaixa nas duas pontas diferentes gera duas jogadas
+            if (end1 >= 0 && end1 != end2 && fits(tile, end2)) {
+                out[count++] = tile << 1 | 1;
+            }
+        }
+        return count;
+    }
+
+    // Aplica a jogada de quem está na vez e devolve o token para undo.
+    // A pedra sai da mão do jogador se estiver nela (no jogo ao vivo só a mão do principal é conhecida)
+    long apply(int move) {
+        long previous = meta;
+        int seat = turn();
+        int next = (seat + 1) & (PLAYERS - 1);
+        if (move == PASS) {
+            meta = pack(end1(), end2(), next, Math.min(passes() + 1, PLAYERS));
+            return previous;
+        }
+        int tile = move >>> 1;
+        int a = TileSet.side1(tile);
+        int b = TileSet.side2(tile);
+        int end1 = end1();
+        int end2 = end2();
+        if (end1 < 0) {
+            end1 = a;
+            end2 = b;
+        } else if ((move & 1) == 0) {
+            end1 = a == end1 ? b : a;
+        } else {
+            end2 = a == end2 ? b : a;
+        }
+        hands[seat * WORDS + (tile >>> 6)] &= ~(1L << tile);
+        meta = pack(end1, end2, next, 0);
+        return previous;
+    }
+
+    void undo(int move, long previous) {
+        if (move != PASS) {
+            int tile = move >>> 1;
+            hands[(int) (previous >>> 8 & 0x3) * WORDS + (tile >>> 6)] |= 1L << tile;
+        }
+        meta = previous;
+    }
+
+    // Jogo fechado: vence quem tem menos pontos na mão; NO_WINNER se houver empate
+    int lowestPipSeat() {
+        int best = NO_WINNER;
+        int bestPips = Integer.MAX_VALUE;
+        for (int seat = 0; seat < PLAYERS; seat++) {
+            int pips = handPips(seat);
+            if (pips < bestPips) {
+                bestPips = pips;
+                best = seat;
+            } else if (pips == bestPips) {
+                best = NO_WINNER;
+            }
+        }
+        return best;
+    }
+
+    int handPips(int seat) {
+        int pips = 0;
+        for (int w = 0; w < WORDS; w++) {
+            pips += pipCount(hands[seat * WORDS + w], w);
+        }
+        return pips;
+    }
+
+    // Pontos das pedras da palavra word de uma máscara
+    private static int pipCount(long bits, int word) {
+        int pips = 0;
+        for (long rest = bits; rest != 0; rest &= rest - 1) {
+            int tile = word << 6 | Long.numberOfTrailingZeros(rest);
+            pips += TileSet.side1(tile) + TileSet.side2(tile);
+        }
+        return pips;
+    }
+
+    static int move(int tile, boolean right) {
+        return tile << 1 | (right ? 1 : 0);
+    }
+
+    static int tileOf(int move) {
+        return move >>> 1;
+    }
+
+    static boolean isRight(int move) {
+        return (move & 1) != 0;
+    }
+
+    private static long pack(int end1, int end2, int seat, int passes) {
+        return (end1 + 1) | (long) (end2 + 1) << 4 | (long) seat << 8 | (long) passes << 10;
+    }
+
+    // Duplo-seis: as mãos só usam a palavra 0, então os laços por palavra viram uma conta só. É o
+    // caminho das simulações do conjunto mais jogado, que não pagam pela segunda palavra
+    static final class OneWord extends GameState {
+        @Override
+        boolean isHandEmpty(int seat) {
+            return handWord(seat, 0) == 0;
+        }
+
+        @Override
+        int handSize(int seat) {
+            return Long.bitCount(handWord(seat, 0));
+        }
+
+        @Override
+        int firstPlayableTile(int seat) {
+            long playable = playableTiles(seat, 0);
+            return playable == 0 ? -1 : Long.numberOfTrailingZeros(playable);
+        }
+
+        @Override
+        int legalMoves(int[] out) {
+            int count = addMoves(playableTiles(turn(), 0), 0, out, 0);
+            if (count == 0) {
+                out[count++] = PASS;
+            }
+            return count;
+        }
+
+        @Override
+        int handPips(int seat) {
+            return pipCount(handWord(seat, 0), 0);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+// Propagação de restrições sobre as mãos ocultas. Toda pedra não vista está na mão de algum
+// adversário (ou entre as que dormem, que entram como mais um "adversário" sem exclusões), e cada um
+// tem um número conhecido de pedras. Para cada grupo S de adversários (regra de Hall):
+//   - se as pedras que só S pode ter são tantas quanto as pedras de S, S não tem nenhuma outra;
+//   - se as pedras que S pode ter são tantas quanto as pedras de S, ninguém fora de S tem nenhuma delas.
+// Os casos de um só adversário são o "casa dos pombos": quem só pode ter exatamente o que falta na mão
+// tem todas essas pedras, e uma pedra que só um pode ter é dele. Repete até nada mudar.
+final class HandConstraints {
+    private HandConstraints() {
+    }
+
+    // allowed[p] é apertado no lugar. Retorna false se nenhuma distribuição respeitar as restrições
+    static boolean propagate(long[] unseen, long[][] allowed, int[] sizes) {
+        int players = allowed.length;
+        int groups = 1 << players;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int group = 1; group < groups; group++) {
+                int size = 0;
+                for (int p = 0; p < players; p++) {
+                    if ((group & 1 << p) != 0) size += sizes[p];
+                }
+                int reachable = 0;
+                int forced = 0;
+                for (int w = 0; w < TileSet.WORDS; w++) {
+                    long inside = inside(allowed, group, w);
+                    long onlyInside = unseen[w] & ~outside(allowed, group, w);
+                    if ((onlyInside & ~inside) != 0) {
+                        return false;
+                    }
+                    reachable += Long.bitCount(inside);
+                    forced += Long.bitCount(onlyInside);
+                }
+                if (reachable < size || forced > size) {
+                    return false;
+                }
+                if (forced != size && reachable != size) {
+                    continue;
+                }
+                for (int w = 0; w < TileSet.WORDS; w++) {
+                    long inside = inside(allowed, group, w);
+                    long onlyInside = unseen[w] & ~outside(allowed, group, w);
+                    for (int p = 0; p < players; p++) {
+                        long tightened = allowed[p][w];
+                        if ((group & 1 << p) != 0) {
+                            if (forced == size) {
+                                tightened &= onlyInside;
+                            }
+                        } else if (reachable == size) {
+                            tightened &= ~inside;
+                        }
+                        if (tightened != allowed[p][w]) {
+                            allowed[p][w] = tightened;
+                            changed = true;
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    // Palavra w das pedras que alguém de S pode ter
+    private static long inside(long[][] allowed, int group, int w) {
+        long inside = 0;
+        for (int p = 0; p < allowed.length; p++) {
+            if ((group & 1 << p) != 0) inside |= allowed[p][w];
+        }
+        return inside;
+    }
+
+    // Palavra w das pedras que alguém fora de S pode ter
+    private static long outside(long[][] allowed, int group, int w) {
+        long outside = 0;
+        for (int p = 0; p < allowed.length; p++) {
+            if ((group & 1 << p) == 0) outside |= allowed[p][w];
+        }
+        return outside;
+    }
+}
@@ -0,0 +1,138 @@
+import java.util.Arrays;
+
+// Sorteia mãos ocultas dos adversários coerentes com o que se sabe da mesa: cada pedra não vista
+// vai para um jogador que ainda pode tê-la (fora de notPossibleTiles) e que ainda tem espaço na mão.
+// Nos conjuntos maiores, o monte das pedras que dormem entra como mais um "jogador", sem exclusões.
+// As pedras mais restritas são distribuídas primeiro; se o sorteio travar, recomeça.
+final class HandSampler {
+    static final int MAX_HOLDERS = HeadlessSimulator.PLAYERS + 1; // Jogadores e o monte
+    private static final int MAX_ATTEMPTS = 64;
+
+    private final SplitMix64 random;
+    private final int[] tiles = new int[TileSet.TILE_COUNT];
+    private final int[] capacity = new int[MAX_HOLDERS];
+
+    HandSampler(long seed) {
+        this.random = new SplitMix64(seed);
+    }
+
+    // allowed[seat]: pedras que o jogador ainda pode ter; sizes[seat]: pedras que faltam sortear para ele.
+    // Jogadores com sizes == 0 (ex.: o jogador principal) não recebem nada. Retorna false se não achar
+    // uma distribuição coerente.
+    boolean sample(long[] unseen, long[][] allowed, int[] sizes, long[][] outHands) {
+        return sample(unseen, allowed, sizes, null, outHands);
+    }
+
+    // Com weights (perfis dos jogadores, PlayerProfiles), a chance de cada jogador receber a pedra também é
+    // proporcional a weights[seat][pedra]; weights null, ou a linha de um jogador null, vale peso 1
+    boolean sample(long[] unseen, long[][] allowed, int[] sizes, double[][] weights, long[][] outHands) {
+        int holders = sizes.length;
+        int count = 0;
+        // Ordena as pedras pelo número de jogadores que podem tê-las (1, 2, 3...)
+        for (int options = 1; options <= holders; options++) {
+            int bucketStart = count;
+            for (int tile = TileSet.next(unseen, 0); tile >= 0; tile = TileSet.next(unseen, tile + 1)) {
+                if (countOptions(tile, allowed, sizes) == options) {
+                    tiles[count++] = tile;
+                }
+            }
+            shuffle(bucketStart, count);
+        }
+        if (count != TileSet.size(unseen)) {
+            return false; // Alguma pedra não cabe em nenhuma mão
+        }
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            if (weights == null ? tryDeal(count, allowed, sizes, outHands) : tryDeal(count, allowed, sizes, weights, outHands)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean tryDeal(int count, long[][] allowed, int[] sizes, long[][] outHands) {
+        int holders = sizes.length;
+        for (int seat = 0; seat < holders; seat++) {
+            capacity[seat] = sizes[seat];
+            Arrays.fill(outHands[seat], 0);
+        }
+        for (int i = 0; i < count; i++) {
+            int tile = tiles[i];
+            // Escolhe um jogador com probabilidade proporcional ao espaço livre na mão
+            int total = 0;
+            for (int seat = 0; seat < holders; seat++) {
+                if (TileSet.contains(allowed[seat], tile)) total += capacity[seat];
+            }
+            if (total == 0) {
+                return false;
+            }
+            int pick = random.nextInt(total);
+            for (int seat = 0; seat < holders; seat++) {
+                if (!TileSet.contains(allowed[seat], tile)) continue;
+                pick -= capacity[seat];
+                if (pick < 0) {
+                    TileSet.add(outHands[seat], tile);
+                    capacity[seat]--;
+                    break;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Como tryDeal, com a escolha proporcional ao espaço livre vezes o peso
+    private boolean tryDeal(int count, long[][] allowed, int[] sizes, double[][] weights, long[][] outHands) {
+        int holders = sizes.length;
+        for (int seat = 0; seat < holders; seat++) {
+            capacity[seat] = sizes[seat];
+            Arrays.fill(outHands[seat], 0);
+        }
+        for (int i = 0; i < count; i++) {
+            int tile = tiles[i];
+            double total = 0;
+            int last = -1;
+            for (int seat = 0; seat < holders; seat++) {
+                if (TileSet.contains(allowed[seat], tile) && capacity[seat] > 0) {
+                    total += capacity[seat] * weight(weights, seat, tile);
+                    last = seat;
+                }
+            }
+            if (last < 0) {
+                return false;
+            }
+            double pick = random.nextDouble() * total;
+            int chosen = last; // Se o arredondamento deixar pick sobrando, fica com o último possível
+            for (int seat = 0; seat < last; seat++) {
+                if (!TileSet.contains(allowed[seat], tile) || capacity[seat] == 0) continue;
+                pick -= capacity[seat] * weight(weights, seat, tile);
+                if (pick < 0) {
+                    chosen = seat;
+                    break;
+                }
+            }
+            TileSet.add(outHands[chosen], tile);
+            capacity[chosen]--;
+        }
+        return true;
+    }
+
+    private static double weight(double[][] weights, int seat, int tile) {
+        return seat < weights.length && weights[seat] != null ? weights[seat][tile] : 1;
+    }
+
+    private static int countOptions(int tile, long[][] allowed, int[] sizes) {
+        int options = 0;
+        for (int seat = 0; seat < sizes.length; seat++) {
+            if (sizes[seat] > 0 && TileSet.contains(allowed[seat], tile)) options++;
+        }
+        return options;
+    }
+
+    private void shuffle(int from, int to) {
+        for (int i = to - 1; i > from; i--) {
+            int j = from + random.nextInt(i - from + 1);
+            int swap = tiles[i];
+            tiles[i] = tiles[j];
+            tiles[j] = swap;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+import java.util.Arrays;
+import java.util.List;
+
+// Simulador sem console: distribui mãos aleatórias a partir de uma semente e joga cada partida
+// com firstFitMove (primeira pedra, em ordem de pedra, que encaixa, ponta esquerda primeiro), a mesma
+// política da simulação do console.
+// Todo o estado fica num GameState; nenhuma jogada cria objetos. Nos conjuntos maiores que o
+// duplo-seis, as pedras que sobram no fim do baralho embaralhado dormem. As partidas de run vão para
+// events (por padrão GameEvents.NONE); os rollouts de MoveAdvisor não emitem nada.
+final class HeadlessSimulator {
+    static final int PLAYERS = GameState.PLAYERS;
+    static final int BLOCKED_DRAW = GameState.NO_WINNER; // Jogo fechado com empate na contagem de pontos
+    static final List<String> NAMES = List.of("Jogador 1", "Jogador 2", "Jogador 3", "Jogador 4");
+
+    private final DominoSet set;
+    private final GameState state;
+    private final int[] deck; // Posições em tiles, embaralhadas
+    private final int[] tiles; // Ordinais das pedras do conjunto, em ordem
+    private final long[] tileBits; // 1L << tiles[i], para as mãos de uma palavra
+    private final long[] hand = TileSet.empty();
+    private final SplitMix64 random = new SplitMix64(0);
+    private int turns;
+    private int plays;
+    private GameEvents events = GameEvents.NONE;
+
+    HeadlessSimulator() {
+        this(DominoSet.DOUBLE_SIX);
+    }
+
+    HeadlessSimulator(DominoSet set) {
+        this.set = set;
+        state = GameState.forSet(set);
+        deck = new int[set.tileCount];
+        tiles = new int[set.tileCount];
+        tileBits = new long[set.tileCount];
+        long[] all = set.tiles();
+        int i = 0;
+        for (int tile = TileSet.next(all, 0); tile >= 0; tile = TileSet.next(all, tile + 1)) {
+            tileBits[i] = 1L << tile;
+            tiles[i++] = tile;
+        }
+    }
+
+    // Joga as partidas de índice [firstGame, firstGame + count) e acumula o resultado em stats
+    void run(long masterSeed, long firstGame, long count, SimulationStats stats) {
+        for (long game = firstGame; game < firstGame + count; game++) {
+            deal(gameSeed(masterSeed, game));
+            state.reset(0);
+            events.gameStarted(set, NAMES);
+            long start = Metrics.start();
+            int winner = playOut(state);
+            stats.recordGame(winner, state.isBlocked(), turns, plays);
+            if (Metrics.ENABLED) {
+                Metrics.record(Metrics.Phase.SIMULATED_GAME, start);
+                Metrics.increment(Metrics.Counter.GAMES);
+                Metrics.add(Metrics.Counter.MOVES, plays);
+                Metrics.add(Metrics.Counter.PASSES, turns - plays);
+            }
+        }
+    }
+
+    // Cada partida tem sua própria semente, então o resultado não depende da ordem de execução
+    static long gameSeed(long masterSeed, long game) {
+        return SplitMix64.mix(masterSeed + (game + 1) * SplitMix64.GOLDEN_GAMMA);
+    }
+
+    void deal(long seed) {
+        random.setSeed(seed);
+        // Embaralha posições, não ordinais: o laço que as escreve sai mais barato que copiar tiles
+        for (int i = 0; i < deck.length; i++) {
+            deck[i] = i;
+        }
+        // Fisher-Yates
+        for (int i = deck.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = deck[i];
+            deck[i] = deck[j];
+            deck[j] = swap;
+        }
+        if (set == DominoSet.DOUBLE_SIX) {
+            dealDoubleSix();
+            return;
+        }
+        int handSize = set.handSize;
+        for (int seat = 0; seat < PLAYERS; seat++) {
+            Arrays.fill(hand, 0);
+            for (int k = 0; k < handSize; k++) {
+                TileSet.add(hand, tiles[deck[seat * handSize + k]]);
+            }
+            state.setHand(seat, hand);
+        }
+    }
+
+    // Duplo-seis: cada mão cabe numa palavra, montada num long em vez do long[] de TileSet, e o
+    // tamanho constante da mão deixa o JIT desenrolar o laço
+    private void dealDoubleSix() {
+        int handSize = DominoSet.DOUBLE_SIX_HAND_SIZE;
+        for (int seat = 0; seat < PLAYERS; seat++) {
+            long bits = 0;
+            for (int k = 0; k < handSize; k++) {
+                bits |= tileBits[deck[seat * handSize + k]];
+            }
+            state.setHand(seat, bits);
+        }
+    }
+
+    // Joga a partir da posição atual até alguém bater ou a mesa fechar (todos passam em sequência).
+    // Retorna o vencedor; num jogo fechado vence quem tem menos pontos na mão
+    int playOut(GameState game) {
+        if (events == GameEvents.NONE && game instanceof GameState.OneWord) {
+            return playOutFirstWord(game);
+        }
+        turns = 0;
+        plays = 0;
+        while (true) {
+            turns++;
+            int seat = game.turn();
+            int move = firstFitMove(game, seat);
+            game.apply(move);
+            if (move == GameState.PASS) {
+                events.passed(seat);
+                if (game.isBlocked()) {
+                    int winner = game.lowestPipSeat();
+                    events.blocked(winner);
+                    return winner;
+                }
+            } else {
+                plays++;
+                events.played(seat, GameState.tileOf(move), GameState.isRight(move), GameEvents.NOT_SOLVED);
+                if (game.isHandEmpty(seat)) {
+                    events.won(seat);
+                    return seat;
+                }
+            }
+        }
+    }
+
+    // O laço dos rollouts e simulações em lote do duplo-seis: sem eventos e lendo só a palavra 0
+    // das mãos, sem nenhuma chamada virtual no caminho de cada jogada
+    private int playOutFirstWord(GameState game) {
+        turns = 0;
+        plays = 0;
+        while (true) {
+            turns++;
+            int seat = game.turn();
+            long playable = game.playableTiles(seat, 0);
+            int move = GameState.PASS;
+            if (playable != 0) {
+                int tile = Long.numberOfTrailingZeros(playable);
+                int end1 = game.end1();
+                move = GameState.move(tile, end1 >= 0 && !GameState.fits(tile, end1));
+            }
+            game.apply(move);
+            if (move == GameState.PASS) {
+                if (game.isBlocked()) {
+                    return game.lowestPipSeat();
+                }
+            } else {
+                plays++;
+                if (game.handWord(seat, 0) == 0) {
+                    return seat;
+                }
+            }
+        }
+    }
+
+    // Primeira pedra da mão que encaixa, na ponta esquerda se possível
+    static int firstFitMove(GameState game, int seat) {
+        int tile = game.firstPlayableTile(seat);
+        if (tile < 0) {
+            return GameState.PASS;
+        }
+        int end1 = game.end1();
+        return GameState.move(tile, end1 >= 0 && !GameState.fits(tile, end1));
+    }
+
+    void setEvents(GameEvents events) {
+        this.events = events;
+    }
+
+    DominoSet getSet() {
+        return set;
+    }
+
+    GameState getState() {
+        return state;
+    }
+}
@@ -0,0 +1,137 @@
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+// Um objeto JSON por linha, cada um com o número da partida no arquivo:
+//   {"jogo":1,"evento":"inicio","conjunto":"duplo-seis","jogadores":["Ana","Bia","Caio","Davi"]}
+//   {"jogo":1,"evento":"jogou","jogador":0,"pedra":"3/4","lado":"E"}   ("final":1 se veio do solucionador)
+//   {"jogo":1,"evento":"passou","jogador":1}
+//   {"jogo":1,"evento":"desfez"}
+//   {"jogo":1,"evento":"bateu","jogador":0}
+//   {"jogo":1,"evento":"fechado","vencedor":2}                          (null no empate)
+final class JsonLinesEvents extends BufferedGameEvents {
+    private static final byte[] GAME = utf8("{\"jogo\":");
+    private static final byte[] STARTED = utf8(",\"evento\":\"inicio\",\"conjunto\":\"");
+    private static final byte[] PLAYERS = utf8("\",\"jogadores\":[");
+    private static final byte[] PLAYED = utf8(",\"evento\":\"jogou\",\"jogador\":");
+    private static final byte[] TILE = utf8(",\"pedra\":\"");
+    private static final byte[] LEFT = utf8("\",\"lado\":\"E\"");
+    private static final byte[] RIGHT = utf8("\",\"lado\":\"D\"");
+    private static final byte[] SOLVED = utf8(",\"final\":");
+    private static final byte[] PASSED = utf8(",\"evento\":\"passou\",\"jogador\":");
+    private static final byte[] UNDONE = utf8(",\"evento\":\"desfez\"");
+    private static final byte[] WON = utf8(",\"evento\":\"bateu\",\"jogador\":");
+    private static final byte[] BLOCKED = utf8(",\"evento\":\"fechado\",\"vencedor\":");
+    private static final byte[] NULL = utf8("null");
+    private static final byte[] END = utf8("}\n");
+
+    private long game;
+
+    JsonLinesEvents(Path file) throws IOException {
+        super(new EventWriter(new BufferedOutputStream(Files.newOutputStream(file)), true), true);
+    }
+
+    private JsonLinesEvents(EventWriter writer) {
+        super(writer, false);
+    }
+
+    @Override
+    public GameEvents fork() {
+        return new JsonLinesEvents(writer);
+    }
+
+    @Override
+    public void gameStarted(DominoSet set, List<String> names) {
+        game = writer.nextGame();
+        begin();
+        put(STARTED);
+        put(utf8(set.name));
+        put(PLAYERS);
+        for (int seat = 0; seat < names.size(); seat++) {
+            if (seat > 0) put(',');
+            putString(names.get(seat));
+        }
+        put(']');
+        put(END);
+    }
+
+    @Override
+    public void played(int seat, int tile, boolean right, int solved) {
+        begin();
+        put(PLAYED);
+        putNumber(seat);
+        put(TILE);
+        put(TILE_TEXT[tile]);
+        put(right ? RIGHT : LEFT);
+        if (solved != NOT_SOLVED) {
+            put(SOLVED);
+            putNumber(solved);
+        }
+        put(END);
+    }
+
+    @Override
+    public void passed(int seat) {
+        begin();
+        put(PASSED);
+        putNumber(seat);
+        put(END);
+    }
+
+    @Override
+    public void undone() {
+        begin();
+        put(UNDONE);
+        put(END);
+    }
+
+    @Override
+    public void won(int seat) {
+        begin();
+        put(WON);
+        putNumber(seat);
+        put(END);
+        gameEnded();
+    }
+
+    @Override
+    public void blocked(int winner) {
+        begin();
+        put(BLOCKED);
+        if (winner == GameState.NO_WINNER) {
+            put(NULL);
+        } else {
+            putNumber(winner);
+        }
+        put(END);
+        gameEnded();
+    }
+
+    private void begin() {
+        put(GAME);
+        putNumber(game);
+    }
+
+    // Nomes vêm do console: aspas, barras e controles precisam de escape
+    private void putString(String text) {
+        put('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                put('\\');
+                put(c);
+            } else if (c < 0x20) {
+                put(utf8(String.format("\\u%04x", (int) c)));
+            } else if (c < 0x80) {
+                put(c);
+            } else {
+                int codePoint = text.codePointAt(i);
+                put(utf8(Character.toString(codePoint)));
+                i += Character.charCount(codePoint) - 1;
+            }
+        }
+        put('"');
+    }
+}
@@ -0,0 +1,169 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Classificação mantida de forma incremental: vitórias, coelhos e gatos por jogador e confrontos diretos.
+// É salva como um instantâneo em disco, junto com até onde cada arquivo antigo já foi importado,
+// para que nada precise ser relido.
+final class Leaderboard {
+    private static final int MAGIC = 0x4C454144; // "LEAD"
+    private static final int VERSION = 1;
+
+    static final class PlayerStats {
+        long games;
+        long wins;
+        long rabbits;
+        long cats;
+    }
+
+    // Ponto em que a importação de um arquivo antigo parou
+    static final class FileProgress {
+        long offset;
+        int rabbitPoints; // Totais da última partida lida, para calcular o que mudou na seguinte
+        int catPoints;
+    }
+
+    private final Map<String, PlayerStats> players = new HashMap<>();
+    private final Map<String, Map<String, Long>> headToHead = new HashMap<>(); // Vencedor -> adversário -> vitórias
+    private final Map<String, FileProgress> progress = new HashMap<>();
+
+    // Registra uma partida; winner é null nos jogos fechados, que contam partida para todos e vitória para ninguém
+    void recordGame(List<String> names, String winner, boolean rabbit, boolean cat) {
+        for (String name : names) {
+            PlayerStats stats = players.computeIfAbsent(name, n -> new PlayerStats());
+            stats.games++;
+            if (cat) {
+                stats.cats++;
+            }
+        }
+        if (winner == null) {
+            return;
+        }
+        PlayerStats stats = players.computeIfAbsent(winner, n -> new PlayerStats());
+        stats.wins++;
+        if (rabbit) {
+            stats.rabbits++;
+        }
+        Map<String, Long> beaten = headToHead.computeIfAbsent(winner, n -> new HashMap<>());
+        for (String name : names) {
+            if (!name.equals(winner)) {
+                beaten.merge(name, 1L, Long::sum);
+            }
+        }
+    }
+
+    FileProgress progressOf(Path file) {
+        return progress.computeIfAbsent(file.toAbsolutePath().normalize().toString(), f -> new FileProgress());
+    }
+
+    // Zera as estatísticas; o progresso dos arquivos antigos é mantido para eles não serem reimportados
+    void clearStats() {
+        players.clear();
+        headToHead.clear();
+    }
+
+    boolean isEmpty() {
+        return players.isEmpty();
+    }
+
+    String format() {
+        List<Map.Entry<String, PlayerStats>> ranking = new ArrayList<>(players.entrySet());
+        ranking.sort((a, b) -> Long.compare(b.getValue().wins, a.getValue().wins));
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, PlayerStats> entry : ranking) {
+            PlayerStats stats = entry.getValue();
+            sb.append(String.format("%s: %d vitórias em %d partidas, %d coelhos, %d gatos%n",
+                    entry.getKey(), stats.wins, stats.games, stats.rabbits, stats.cats));
+            Map<String, Long> beaten = headToHead.get(entry.getKey());
+            if (beaten != null) {
+                sb.append("   venceu:");
+                beaten.forEach((name, wins) -> sb.append(' ').append(name).append(" (").append(wins).append(')'));
+                sb.append(System.lineSeparator());
+            }
+        }
+        return sb.toString();
+    }
+
+    void load(Path cache) throws IOException {
+        players.clear();
+        headToHead.clear();
+        progress.clear();
+        if (!Files.exists(cache)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cache)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Cache de classificação inválido: " + cache);
+            }
+            for (int i = in.readInt(); i > 0; i--) {
+                PlayerStats stats = new PlayerStats();
+                String name = in.readUTF();
+                stats.games = in.readLong();
+                stats.wins = in.readLong();
+                stats.rabbits = in.readLong();
+                stats.cats = in.readLong();
+                players.put(name, stats);
+            }
+            for (int i = in.readInt(); i > 0; i--) {
+                String winner = in.readUTF();
+                String loser = in.readUTF();
+                headToHead.computeIfAbsent(winner, n -> new HashMap<>()).put(loser, in.readLong());
+            }
+            for (int i = in.readInt(); i > 0; i--) {
+                FileProgress file = new FileProgress();
+                String path = in.readUTF();
+                file.offset = in.readLong();
+                file.rabbitPoints = in.readInt();
+                file.catPoints = in.readInt();
+                progress.put(path, file);
+            }
+        }
+    }
+
+    // Grava num arquivo temporário e troca de uma vez, para nunca deixar um cache pela metade
+    void save(Path cache) throws IOException {
+        Path temp = cache.resolveSibling(cache.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(players.size());
+            for (Map.Entry<String, PlayerStats> entry : players.entrySet()) {
+                PlayerStats stats = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeLong(stats.games);
+                out.writeLong(stats.wins);
+                out.writeLong(stats.rabbits);
+                out.writeLong(stats.cats);
+            }
+            int pairs = 0;
+            for (Map<String, Long> beaten : headToHead.values()) {
+                pairs += beaten.size();
+            }
+            out.writeInt(pairs);
+            for (Map.Entry<String, Map<String, Long>> entry : headToHead.entrySet()) {
+                for (Map.Entry<String, Long> beaten : entry.getValue().entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeUTF(beaten.getKey());
+                    out.writeLong(beaten.getValue());
+                }
+            }
+            out.writeInt(progress.size());
+            for (Map.Entry<String, FileProgress> entry : progress.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeLong(entry.getValue().offset);
+                out.writeInt(entry.getValue().rabbitPoints);
+                out.writeInt(entry.getValue().catPoints);
+            }
+        }
+        Files.move(temp, cache, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
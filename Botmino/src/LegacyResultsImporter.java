@@ -0,0 +1,132 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Lê arquivos no formato antigo de saveResultsToFile, linha a linha e em memória constante:
+//   Partida #N - Vencedor: X
+//   Pontuação Atual: A: 0 B: 1 ...
+//   Coelhos: a, Gatos: b
+//   (separador: traços, tabulação ou linha vazia)
+// Retoma do byte em que a importação anterior daquele arquivo parou.
+// Coelhos e gatos são contadores da sessão do jogo antigo: crescem de partida em partida e voltam a
+// zero quando o programa recomeça. Um valor menor que o anterior é um recomeço, e conta do zero.
+// O coelho também aparece, com certeza, no placar: o vencedor que fez coelho volta a ter 0 vitórias.
+final class LegacyResultsImporter {
+    private static final Pattern SCORE = Pattern.compile("(\\S.*?): (-?\\d+)(?= |$)");
+    private static final Pattern TOTALS = Pattern.compile("Coelhos: (\\d+), Gatos: (\\d+)");
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private byte[] line = new byte[256];
+    private int lineLength;
+    private int bufferLength;
+    private int bufferPosition;
+    private InputStream in;
+
+    private LegacyResultsImporter() {
+    }
+
+    // Importa as partidas novas do arquivo para a classificação e devolve quantas foram lidas
+    static int importFile(Path file, Leaderboard leaderboard) throws IOException {
+        return new LegacyResultsImporter().run(file, leaderboard);
+    }
+
+    private int run(Path file, Leaderboard leaderboard) throws IOException {
+        Leaderboard.FileProgress progress = leaderboard.progressOf(file);
+        int imported = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < progress.offset) {
+                throw new IOException("O arquivo encolheu desde a última importação: " + file);
+            }
+            channel.position(progress.offset);
+            in = Channels.newInputStream(channel);
+            long offset = progress.offset;
+            String winner = null;
+            List<String> names = new ArrayList<>();
+            int winnerScore = -1; // -1 se o vencedor não aparece no placar
+            int length;
+            while ((length = readLine()) >= 0) {
+                offset += length;
+                String text = decode();
+                if (text.startsWith("Partida #")) {
+                    int index = text.indexOf("Vencedor: ");
+                    winner = index < 0 ? null : text.substring(index + "Vencedor: ".length()).trim();
+                    names.clear();
+                    winnerScore = -1;
+                } else if (text.startsWith("Pontua") && text.contains("Atual:")) {
+                    Matcher matcher = SCORE.matcher(text.substring(text.indexOf("Atual:") + "Atual:".length()));
+                    while (matcher.find()) {
+                        names.add(matcher.group(1));
+                        if (matcher.group(1).equals(winner)) {
+                            winnerScore = Integer.parseInt(matcher.group(2));
+                        }
+                    }
+                } else if (text.startsWith("Coelhos:")) {
+                    Matcher matcher = TOTALS.matcher(text);
+                    if (winner != null && matcher.find()) {
+                        int rabbits = Integer.parseInt(matcher.group(1));
+                        int cats = Integer.parseInt(matcher.group(2));
+                        if (!names.contains(winner)) {
+                            names.add(winner);
+                        }
+                        // Os totais do arquivo são acumulados: o que mudou desde a partida anterior é desta partida
+                        boolean rabbit = winnerScore >= 0 ? winnerScore == 0 : increased(rabbits, progress.rabbitPoints);
+                        leaderboard.recordGame(names, winner, rabbit, increased(cats, progress.catPoints));
+                        progress.rabbitPoints = rabbits;
+                        progress.catPoints = cats;
+                        imported++;
+                    }
+                    winner = null;
+                    // Só avança o ponto de retomada em partidas completas
+                    progress.offset = offset;
+                }
+            }
+        }
+        return imported;
+    }
+
+    // O contador andou desde a partida anterior; se diminuiu, o jogo antigo recomeçou e contou do zero
+    private static boolean increased(int total, int previous) {
+        return total < previous ? total > 0 : total > previous;
+    }
+
+    // Lê até o fim da linha (inclusive) e devolve quantos bytes consumiu, ou -1 no fim do arquivo.
+    // Uma última linha sem quebra não é consumida, pois pode estar sendo escrita
+    private int readLine() throws IOException {
+        int length = 0;
+        int consumed = 0;
+        while (true) {
+            if (bufferPosition == bufferLength) {
+                bufferLength = in.read(buffer);
+                bufferPosition = 0;
+                if (bufferLength <= 0) {
+                    bufferLength = 0;
+                    return -1;
+                }
+            }
+            byte b = buffer[bufferPosition++];
+            consumed++;
+            if (b == '\n') {
+                lineLength = length;
+                return consumed;
+            }
+            if (length == line.length) {
+                line = Arrays.copyOf(line, line.length * 2);
+            }
+            line[length++] = b;
+        }
+    }
+
+    private String decode() {
+        return new String(line, 0, lineLength, StandardCharsets.UTF_8).trim();
+    }
+}
@@ -0,0 +1,507 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+// Regras de uma partida ao vivo, sem console: de quem é a vez, o que encaixa na mesa e o que cada
+// adversário ainda pode ter. Usada pelo menu (playGame) e pela reprodução de transcrições.
+// Só a mão do jogador principal é conhecida; as dos adversários ficam vazias no GameState. Nos conjuntos
+// maiores que o duplo-seis, as pedras não vistas incluem as que dormem, que ninguém vai jogar.
+final class LiveGame {
+    enum Side { ANY, LEFT, RIGHT }
+
+    enum Outcome {
+        PLAYED,
+        WON,
+        PASSED,
+        BLOCKED,       // Todos passaram em sequência: jogo fechado
+        NEEDS_SIDE,    // A pedra encaixa nas duas pontas e o lado não foi informado
+        NO_FIT,
+        NOT_IN_HAND,   // O principal tentou jogar uma pedra que não é dele
+        NOT_AVAILABLE, // A pedra já saiu ou está na mão do principal
+        GAME_OVER
+    }
+
+    enum EventType { PLAYED, PASSED, SIDE_CHOSEN }
+
+    // Registro da partida, só acrescentado no fim. Cada evento guarda o inverso do que mudou, para
+    // desfazê-lo em O(1): o token do estado compacto, se a pedra saiu das não vistas e só os bits que
+    // entraram nas exclusões de cada jogador (a pedra jogada, os números de um passe, as deduções).
+    // SIDE_CHOSEN precede o PLAYED de uma pedra que encaixava nas duas pontas
+    static final class Event {
+        final EventType type;
+        final int seat;
+        final DominoTile tile;       // null em PASSED
+        final boolean left;          // Ponta em que a pedra entrou
+        final long stateToken;       // Devolvido por GameState.apply
+        final boolean tookUnseen;    // A pedra jogada saiu das não vistas (jogada de adversário)
+        final long[] excluded;       // Bits novos nas exclusões, TileSet.WORDS palavras por jogador; null se nenhum
+        final int handIndex;         // Posição da pedra na mão do principal; -1 para adversários
+
+        Event(EventType type, int seat, DominoTile tile, boolean left, long stateToken, boolean tookUnseen,
+              long[] excluded, int handIndex) {
+            this.type = type;
+            this.seat = seat;
+            this.tile = tile;
+            this.left = left;
+            this.stateToken = stateToken;
+            this.tookUnseen = tookUnseen;
+            this.excluded = excluded;
+            this.handIndex = handIndex;
+        }
+    }
+
+    private final DominoSet set;
+    private final List<Player> players;
+    private final int principal;
+    private final GameState state;
+    private final TableLine table = new TableLine();
+    private final List<Event> events = new ArrayList<>();
+    private final long[] unseen; // Pedras que ainda podem estar com os adversários (ou dormindo)
+    private final long[] exclusionsBefore; // Exclusões de antes do evento em andamento, para calcular o delta
+    // Pedras que cada adversário (na ordem da mesa, sem o principal) ainda pode ter e, se sobram pedras
+    // além das mãos, o monte que dorme; refeitas no lugar a cada jogada, passe e desfazer. O monte não
+    // aparece nem some no meio da partida: jogada de adversário tira uma das não vistas e uma da mão dele
+    private final long[][] candidates;
+    private final int[] candidateSizes;
+    private final long[] deduced = TileSet.empty(); // O que propagate tira de um adversário
+    private boolean over;
+    private int winner = GameState.NO_WINNER;
+
+    LiveGame(DominoSet set, List<Player> players, int principal, int starter) {
+        this.set = set;
+        this.players = players;
+        this.principal = principal;
+        state = GameState.forSet(set);
+        unseen = set.tiles();
+        exclusionsBefore = new long[players.size() * TileSet.WORDS];
+        for (Player player : players) {
+            TileSet.removeAll(unseen, TileSet.of(player.getDominoes()));
+        }
+        for (int i = 0; i < players.size(); i++) {
+            state.setHand(i, i == principal ? TileSet.of(players.get(i).getDominoes()) : TileSet.empty());
+        }
+        state.reset(starter);
+        int holders = sleepingCount() > 0 ? TileProbabilities.HOLDERS : TileProbabilities.OPPONENTS;
+        candidates = new long[holders][TileSet.WORDS];
+        candidateSizes = new int[holders];
+        refreshCandidates();
+    }
+
+    // Cópia independente da partida (jogadores, mesa, estado e registro), para jogar hipóteses sobre ela
+    LiveGame(LiveGame other) {
+        set = other.set;
+        players = new ArrayList<>();
+        for (Player player : other.players) {
+            players.add(new Player(player));
+        }
+        principal = other.principal;
+        state = GameState.like(other.state);
+        state.copyFrom(other.state);
+        table.copyFrom(other.table);
+        events.addAll(other.events); // Eventos não mudam depois de criados
+        unseen = TileSet.copy(other.unseen);
+        exclusionsBefore = new long[other.exclusionsBefore.length];
+        candidates = new long[other.candidates.length][TileSet.WORDS];
+        candidateSizes = new int[other.candidateSizes.length];
+        refreshCandidates();
+        over = other.over;
+        winner = other.winner;
+    }
+
+    Outcome pass() {
+        if (over) {
+            return Outcome.GAME_OVER;
+        }
+        int seat = state.turn();
+        Player player = players.get(seat);
+        saveExclusions();
+        // Registra o passe no histórico com os valores das pontas da mesa
+        int end1 = state.end1();
+        int end2 = state.end2();
+        player.addToHistory(DominoTile.passMarker(end1, end2));
+        // Quem passa não tem nenhuma pedra com os números das pontas
+        if (end1 != -1) {
+            removeTilesWithNumber(player, end1);
+        }
+        if (end2 != -1) {
+            removeTilesWithNumber(player, end2);
+        }
+        long token = state.apply(GameState.PASS);
+        refreshCandidates();
+        if (state.isBlocked()) {
+            over = true;
+        } else {
+            propagate();
+        }
+        events.add(new Event(EventType.PASSED, seat, null, false, token, false, addedExclusions(), -1));
+        return over ? Outcome.BLOCKED : Outcome.PASSED;
+    }
+
+    Outcome play(DominoTile tile, Side side) {
+        if (over) {
+            return Outcome.GAME_OVER;
+        }
+        int seat = state.turn();
+        Player player = players.get(seat);
+        if (seat == principal && !player.getDominoes().contains(tile)) {
+            return Outcome.NOT_IN_HAND;
+        }
+        if (seat != principal && !TileSet.contains(unseen, tile)) {
+            return Outcome.NOT_AVAILABLE;
+        }
+        boolean left = false;
+        if (!table.isEmpty()) {
+            int end1 = state.end1();
+            int end2 = state.end2();
+            boolean canPlaceLeft = tile.getSide1() == end1 || tile.getSide2() == end1;
+            boolean canPlaceRight = tile.getSide1() == end2 || tile.getSide2() == end2;
+            if (!canPlaceLeft && !canPlaceRight) {
+                return Outcome.NO_FIT;
+            }
+            left = canPlaceLeft;
+            if (canPlaceLeft && canPlaceRight) {
+                if (side == Side.ANY) {
+                    return Outcome.NEEDS_SIDE;
+                }
+                left = side == Side.LEFT;
+                events.add(new Event(EventType.SIDE_CHOSEN, seat, tile, left, 0, false, null, -1));
+            }
+        }
+        saveExclusions();
+        boolean tookUnseen = TileSet.contains(unseen, tile.ordinal());
+        int handIndex = seat == principal ? player.getDominoes().indexOf(tile) : -1;
+        if (table.isEmpty()) {
+            table.addRight(tile, false);
+        } else if (left) {
+            table.addLeft(tile, tile.getSide1() == state.end1());
+        } else {
+            table.addRight(tile, tile.getSide1() != state.end2());
+        }
+        long token = state.apply(GameState.move(tile.ordinal(), !left));
+        player.playTile(tile);
+        TileSet.remove(unseen, tile.ordinal());
+        // Remove a pedra jogada das possíveis pedras dos outros jogadores
+        for (Player other : players) {
+            if (other != player) {
+                other.addToNotPossibleTiles(tile);
+            }
+        }
+        refreshCandidates();
+        if (player.getDominoes().isEmpty() && player.getPlayCount() == set.handSize) {
+            over = true;
+            winner = seat;
+        } else {
+            propagate();
+        }
+        events.add(new Event(EventType.PLAYED, seat, tile, left, token, tookUnseen, addedExclusions(), handIndex));
+        return over ? Outcome.WON : Outcome.PLAYED;
+    }
+
+    // Desfaz o último passe ou jogada (com a escolha de lado que veio com ela) aplicando o inverso
+    // guardado no evento. Retorna false se não há nada para desfazer
+    boolean undo() {
+        if (events.isEmpty()) {
+            return false;
+        }
+        Event event = events.remove(events.size() - 1);
+        Player player = players.get(event.seat);
+        if (event.type == EventType.PLAYED) {
+            state.undo(GameState.move(event.tile.ordinal(), !event.left), event.stateToken);
+            if (event.seat != principal) {
+                // GameState devolve a pedra a quem jogou, mas a mão de um adversário continua desconhecida
+                state.setHand(event.seat, TileSet.empty());
+            }
+            if (event.left) {
+                table.removeLeft();
+            } else {
+                table.removeRight();
+            }
+            player.unplayTile(event.tile, event.handIndex);
+            if (!events.isEmpty() && events.get(events.size() - 1).type == EventType.SIDE_CHOSEN) {
+                events.remove(events.size() - 1);
+            }
+        } else {
+            state.undo(GameState.PASS, event.stateToken);
+            player.removeLastFromHistory();
+        }
+        if (event.tookUnseen) {
+            TileSet.add(unseen, event.tile.ordinal());
+        }
+        if (event.excluded != null) {
+            int words = TileSet.WORDS;
+            for (int i = 0; i < players.size(); i++) {
+                long[] notPossible = players.get(i).getNotPossibleTiles();
+                for (int w = 0; w < words; w++) {
+                    notPossible[w] &= ~event.excluded[i * words + w];
+                }
+            }
+        }
+        refreshCandidates();
+        over = false;
+        winner = GameState.NO_WINNER;
+        return true;
+    }
+
+    // As jogadas no vocabulário das transcrições (x/y, E/D, p), derivadas do registro
+    List<String> moveTokens() {
+        List<String> tokens = new ArrayList<>();
+        String side = null;
+        for (Event event : events) {
+            if (event.type == EventType.SIDE_CHOSEN) {
+                side = event.left ? "E" : "D";
+            } else if (event.type == EventType.PASSED) {
+                tokens.add("p");
+            } else {
+                tokens.add(event.tile.toString());
+                if (side != null) {
+                    tokens.add(side);
+                    side = null;
+                }
+            }
+        }
+        return tokens;
+    }
+
+    List<Event> getEvents() {
+        return events;
+    }
+
+    private void saveExclusions() {
+        int words = TileSet.WORDS;
+        for (int i = 0; i < players.size(); i++) {
+            System.arraycopy(players.get(i).getNotPossibleTiles(), 0, exclusionsBefore, i * words, words);
+        }
+    }
+
+    // O que entrou nas exclusões desde saveExclusions (elas só crescem durante um evento); null se nada
+    private long[] addedExclusions() {
+        int words = TileSet.WORDS;
+        long[] added = null;
+        for (int i = 0; i < players.size(); i++) {
+            long[] notPossible = players.get(i).getNotPossibleTiles();
+            for (int w = 0; w < words; w++) {
+                long bits = notPossible[w] & ~exclusionsBefore[i * words + w];
+                if (bits != 0) {
+                    if (added == null) added = new long[exclusionsBefore.length];
+                    added[i * words + w] = bits;
+                }
+            }
+        }
+        return added;
+    }
+
+    private long[][] notPossibleSnapshot() {
+        long[][] snapshot = new long[players.size()][];
+        for (int i = 0; i < players.size(); i++) {
+            snapshot[i] = TileSet.copy(players.get(i).getNotPossibleTiles());
+        }
+        return snapshot;
+    }
+
+    // Aperta o que cada adversário pode ter até o ponto fixo (HandConstraints). As deduções são
+    // definitivas, pois ninguém compra pedras, e ficam nas pedras impossíveis de cada jogador
+    private void propagate() {
+        Metrics.increment(Metrics.Counter.INFERENCES);
+        // HandConstraints aperta as candidatas no lugar; o que sai delas vira exclusão e a vista é refeita
+        if (HandConstraints.propagate(unseen, candidates, candidateSizes)) {
+            int opponent = 0;
+            for (int i = 0; i < players.size(); i++) {
+                if (i == principal) continue;
+                players.get(i).addToNotPossibleTiles(TileSet.minus(unseen, candidates[opponent++], deduced));
+            }
+        }
+        // Histórico incoerente (jogada digitada errada?): fica só o que foi observado
+        refreshCandidates();
+    }
+
+    private void refreshCandidates() {
+        int opponent = 0;
+        for (int i = 0; i < players.size(); i++) {
+            if (i == principal) continue;
+            Player player = players.get(i);
+            long[] notPossible = player.getNotPossibleTiles();
+            long[] possible = candidates[opponent];
+            for (int w = 0; w < TileSet.WORDS; w++) {
+                possible[w] = unseen[w] & ~notPossible[w];
+            }
+            candidateSizes[opponent++] = set.handSize - player.getPlayCount();
+        }
+        if (opponent < candidates.length) {
+            System.arraycopy(unseen, 0, candidates[opponent], 0, TileSet.WORDS);
+            candidateSizes[opponent] = sleepingCount();
+        }
+    }
+
+    // Probabilidade de cada adversário (na ordem da mesa, sem o principal) ter cada pedra;
+    // null se o histórico for incoerente
+    double[][] probabilities(TileProbabilities calculator) {
+        int[] handSizes = opponentHandSizes();
+        double[][] probabilities = calculator.compute(unseen, opponentPossibleTiles(), handSizes);
+        double[][] weights = opponentTileWeights(set, players, principal, handSizes.length);
+        if (probabilities != null && weights != null) {
+            TileProbabilities.reweight(probabilities, weights, unseen, handSizes);
+        }
+        return probabilities;
+    }
+
+    // No final, quando as mãos dos adversários já estão determinadas, resolve a posição exatamente.
+    // Retorna null enquanto ainda houver pedras demais ou alguma mão em aberto
+    EndgameSolver.Solution solveEndgame(TileProbabilities calculator, EndgameSolver solver) {
+        int[] handSizes = opponentHandSizes();
+        int tiles = players.get(principal).getDominoes().size();
+        for (int opponent = 0; opponent < TileProbabilities.OPPONENTS; opponent++) {
+            tiles += handSizes[opponent];
+        }
+        if (tiles > EndgameSolver.MAX_TILES) {
+            return null;
+        }
+        double[][] probabilities = probabilities(calculator);
+        if (probabilities == null) {
+            return null;
+        }
+        GameState position = GameState.like(state);
+        position.copyFrom(state);
+        int opponent = 0;
+        for (int i = 0; i < players.size(); i++) {
+            if (i == principal) continue;
+            // Só pedras com probabilidade 1: se faltar alguma, a mão ainda não está determinada
+            long[] hand = TileSet.empty();
+            for (int ordinal = TileSet.next(unseen, 0); ordinal >= 0; ordinal = TileSet.next(unseen, ordinal + 1)) {
+                if (probabilities[opponent][ordinal] > 0.999999) {
+                    TileSet.add(hand, ordinal);
+                }
+            }
+            if (TileSet.size(hand) != handSizes[opponent++]) {
+                return null;
+            }
+            position.setHand(i, hand);
+        }
+        return solver.solve(position);
+    }
+
+    // Conselho para quem está na vez; só faz sentido na vez do principal, cuja mão é conhecida
+    List<MoveAdvisor.MoveAdvice> advise(long budgetMs) {
+        return advise(budgetMs, () -> false);
+    }
+
+    List<MoveAdvisor.MoveAdvice> advise(long budgetMs, BooleanSupplier cancelled) {
+        return MoveAdvisor.advise(state, unseen, notPossibleSnapshot(), handSizesBySeat(), tileWeightsBySeat(), budgetMs,
+                cancelled);
+    }
+
+    // Todas as jogadas legais de quem está na vez, na ordem de GameState.legalMoves, avaliadas com um
+    // número fixo de sorteios a partir de seed (ver MoveAdvisor.evaluate)
+    List<MoveAdvisor.MoveAdvice> evaluate(int samples, long seed) {
+        return MoveAdvisor.evaluate(state, unseen, notPossibleSnapshot(), handSizesBySeat(), samples, seed);
+    }
+
+    // Pesos dos perfis de cada jogador, por assento; null se nenhum adversário tem perfil
+    private double[][] tileWeightsBySeat() {
+        double[][] weights = new double[players.size()][];
+        boolean any = false;
+        for (int i = 0; i < players.size(); i++) {
+            Player player = players.get(i);
+            if (i != principal && player.getProfile() != null) {
+                weights[i] = player.getProfile().tileWeights(set, player.getPlayCount());
+                any |= weights[i] != null;
+            }
+        }
+        return any ? weights : null;
+    }
+
+    private int[] handSizesBySeat() {
+        int[] handSizes = new int[players.size()];
+        for (int i = 0; i < players.size(); i++) {
+            Player player = players.get(i);
+            handSizes[i] = i == principal
+                    ? player.getDominoes().size()
+                    : set.handSize - player.getPlayCount();
+        }
+        return handSizes;
+    }
+
+    // Pedras que cada adversário (na ordem da mesa, sem o jogador principal) ainda pode ter. Se sobrarem
+    // pedras não vistas além das mãos, um último elemento com todas elas representa o monte que dorme.
+    // É a vista mantida pela partida: só para leitura, e muda na próxima jogada
+    long[][] opponentPossibleTiles() {
+        return candidates;
+    }
+
+    // Pedras na mão de cada adversário e, como em opponentPossibleTiles, quantas dormem (só leitura)
+    int[] opponentHandSizes() {
+        return candidateSizes;
+    }
+
+    // Pesos dos perfis de cada adversário, na ordem de opponentPossibleTiles (holders elementos; o monte
+    // e quem não tem perfil ficam null); null se nenhum peso muda nada
+    private static double[][] opponentTileWeights(DominoSet set, List<Player> players, int principal, int holders) {
+        double[][] weights = new double[holders][];
+        boolean any = false;
+        int opponent = 0;
+        for (int i = 0; i < players.size(); i++) {
+            if (i == principal) continue;
+            Player player = players.get(i);
+            if (player.getProfile() != null) {
+                weights[opponent] = player.getProfile().tileWeights(set, player.getPlayCount());
+                any |= weights[opponent] != null;
+            }
+            opponent++;
+        }
+        return any ? weights : null;
+    }
+
+    private int sleepingCount() {
+        int sleeping = TileSet.size(unseen);
+        for (int i = 0; i < players.size(); i++) {
+            if (i != principal) sleeping -= set.handSize - players.get(i).getPlayCount();
+        }
+        return sleeping;
+    }
+
+    static void removeTilesWithNumber(Player player, int number) {
+        // Todas as pedras que contêm o número passam a ser impossíveis para o jogador
+        Metrics.increment(Metrics.Counter.INFERENCES);
+        long[] notPossible = player.getNotPossibleTiles();
+        for (int w = 0; w < TileSet.WORDS; w++) {
+            notPossible[w] |= TileSet.pipWord(number, w);
+        }
+    }
+
+    int currentSeat() {
+        return state.turn();
+    }
+
+    int getPrincipal() {
+        return principal;
+    }
+
+    List<Player> getPlayers() {
+        return players;
+    }
+
+    GameState getState() {
+        return state;
+    }
+
+    TableLine getTable() {
+        return table;
+    }
+
+    DominoSet getSet() {
+        return set;
+    }
+
+    // A máscara da partida, não uma cópia
+    long[] getUnseen() {
+        return unseen;
+    }
+
+    boolean isOver() {
+        return over;
+    }
+
+    // Quem bateu, ou NO_WINNER se o jogo fechou ou ainda não acabou
+    int getWinner() {
+        return winner;
+    }
+}
@@ -0,0 +1,199 @@
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Registro binário das partidas, só de acréscimo. Cada partida ocupa um registro de tamanho fixo,
+// então a posição da partida N é HEADER_SIZE + (N - 1) * RECORD_SIZE. Os nomes dos jogadores ficam
+// num dicionário à parte (uma linha por nome, o id é a linha) e o registro guarda só os ids.
+final class MatchLog implements Closeable {
+    static final int MAX_PLAYERS = 4;
+    static final int RECORD_SIZE = 40;
+
+    private static final int MAGIC = 0x444F4D49; // "DOMI"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+
+    // Estado recuperado do registro: partidas, vitórias atuais de cada jogador, coelhos e gatos
+    static final class Snapshot {
+        final List<GameRecord> games = new ArrayList<>();
+        final Map<String, Integer> scores = new HashMap<>();
+        int rabbitPoints;
+        int catPoints;
+    }
+
+    private final Path logFile;
+    private final Path namesFile;
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> nameIds = new HashMap<>();
+    private final ByteBuffer record = ByteBuffer.allocateDirect(RECORD_SIZE);
+    private FileChannel channel;
+    private BufferedWriter namesWriter;
+
+    MatchLog(Path logFile, Path namesFile) {
+        this.logFile = logFile;
+        this.namesFile = namesFile;
+    }
+
+    // Lê todas as partidas registradas; um registro incompleto no fim (queda no meio da escrita) é ignorado.
+    // Layout do registro: id (int), data (long), ids dos jogadores (4 short), vencedor (byte),
+    // nº de jogadores (byte), vitórias (4 short), coelhos (int), gatos (int), 2 bytes livres
+    Snapshot load() throws IOException {
+        loadNames();
+        Snapshot snapshot = new Snapshot();
+        if (!Files.exists(logFile) || Files.size(logFile) < HEADER_SIZE) {
+            return snapshot;
+        }
+        try (FileChannel in = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            MappedByteBuffer map = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+                throw new IOException("Arquivo de histórico inválido: " + logFile);
+            }
+            int count = (int) ((in.size() - HEADER_SIZE) / RECORD_SIZE);
+            // A mesma mesa se repete muitas vezes: a lista de nomes é compartilhada entre as partidas
+            Map<Long, List<String>> tables = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                int offset = HEADER_SIZE + i * RECORD_SIZE;
+                List<String> players = tables.get(map.getLong(offset + 12));
+                if (players == null) {
+                    players = readPlayers(map, offset);
+                    tables.put(map.getLong(offset + 12), players);
+                }
+                int winnerSeat = map.get(offset + 20);
+                snapshot.games.add(new GameRecord(map.getInt(offset), players,
+                        winnerSeat >= 0 ? players.get(winnerSeat) : null));
+            }
+            // Pontuação atual: o registro mais recente de cada jogador, lido de trás para frente
+            for (int i = count - 1; i >= 0 && snapshot.scores.size() < names.size(); i--) {
+                int offset = HEADER_SIZE + i * RECORD_SIZE;
+                int playerCount = map.get(offset + 21);
+                for (int seat = 0; seat < playerCount; seat++) {
+                    snapshot.scores.putIfAbsent(names.get(map.getShort(offset + 12 + 2 * seat)),
+                            (int) map.getShort(offset + 22 + 2 * seat));
+                }
+            }
+            if (count > 0) {
+                int last = HEADER_SIZE + (count - 1) * RECORD_SIZE;
+                snapshot.rabbitPoints = map.getInt(last + 30);
+                snapshot.catPoints = map.getInt(last + 34);
+            }
+        }
+        return snapshot;
+    }
+
+    private List<String> readPlayers(ByteBuffer map, int offset) throws IOException {
+        int playerCount = map.get(offset + 21);
+        List<String> players = new ArrayList<>(playerCount);
+        for (int seat = 0; seat < playerCount; seat++) {
+            int id = map.getShort(offset + 12 + 2 * seat);
+            if (id < 0 || id >= names.size()) {
+                throw new IOException("Jogador desconhecido no histórico: " + id);
+            }
+            players.add(names.get(id));
+        }
+        return players;
+    }
+
+    void append(int gameId, long timestamp, List<String> players, int winnerSeat, int[] scores,
+                int rabbitPoints, int catPoints) throws IOException {
+        open();
+        record.clear();
+        record.putInt(gameId);
+        record.putLong(timestamp);
+        for (int seat = 0; seat < MAX_PLAYERS; seat++) {
+            record.putShort((short) (seat < players.size() ? nameId(players.get(seat)) : -1));
+        }
+        record.put((byte) winnerSeat);
+        record.put((byte) players.size());
+        for (int seat = 0; seat < MAX_PLAYERS; seat++) {
+            record.putShort((short) (seat < players.size() ? scores[seat] : 0));
+        }
+        record.putInt(rabbitPoints);
+        record.putInt(catPoints);
+        record.putShort((short) 0);
+        record.flip();
+        // O dicionário de nomes vai para o disco antes do registro que o referencia
+        namesWriter.flush();
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+    }
+
+    // Apaga todo o histórico salvo
+    void clear() throws IOException {
+        close();
+        Files.deleteIfExists(logFile);
+        Files.deleteIfExists(namesFile);
+        names.clear();
+        nameIds.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (namesWriter != null) {
+            namesWriter.close();
+            namesWriter = null;
+        }
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void loadNames() throws IOException {
+        names.clear();
+        nameIds.clear();
+        if (Files.exists(namesFile)) {
+            for (String name : Files.readAllLines(namesFile, StandardCharsets.UTF_8)) {
+                nameIds.put(name, names.size());
+                names.add(name);
+            }
+        }
+    }
+
+    private int nameId(String name) throws IOException {
+        Integer id = nameIds.get(name);
+        if (id != null) {
+            return id;
+        }
+        int newId = names.size();
+        names.add(name);
+        nameIds.put(name, newId);
+        namesWriter.write(name);
+        namesWriter.newLine();
+        return newId;
+    }
+
+    // Canal e escritor ficam abertos durante toda a execução
+    private void open() throws IOException {
+        if (channel != null) {
+            return;
+        }
+        loadNames();
+        channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+            channel.truncate(0);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+            header.flip();
+            channel.write(header);
+        } else {
+            // Descarta um registro incompleto deixado por uma escrita interrompida
+            long valid = HEADER_SIZE + (size - HEADER_SIZE) / RECORD_SIZE * RECORD_SIZE;
+            channel.truncate(valid);
+            channel.position(valid);
+        }
+        namesWriter = Files.newBufferedWriter(namesFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
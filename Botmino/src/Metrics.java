@@ -0,0 +1,201 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Métricas do caminho quente, ligadas com --metricas: contadores sem trava e histogramas de latência por
+// fase da vez, com buckets log-lineares como os do HdrHistogram (erro relativo de até 1/16). ENABLED é
+// fixado quando a classe carrega (main define a propriedade antes); desligado, cada ponto de medição é
+// o teste de uma constante, que o JIT elimina. Os eventos JFR (Partida, Vez) não dependem da opção:
+// custam quase nada fora de uma gravação do Flight Recorder que os habilite.
+final class Metrics {
+    static final String PROPERTY = "botmino.metricas";
+    static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+    enum Counter {
+        MOVES("jogadas"),
+        PASSES("passes"),
+        INFERENCES("inferências"),
+        REJECTED_INPUTS("entradas recusadas"),
+        GAMES("partidas");
+
+        final String label;
+
+        Counter(String label) {
+            this.label = label;
+        }
+    }
+
+    enum Phase {
+        PROBABILITIES("probabilidades"),
+        ADVICE("conselho"),
+        MOVE("jogada na mesa"),
+        OUTPUT("saída no console"),
+        SIMULATED_GAME("partida simulada");
+
+        final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final LongAdder[] COUNTERS = new LongAdder[Counter.values().length];
+    private static final Histogram[] HISTOGRAMS = new Histogram[Phase.values().length];
+
+    static {
+        for (int i = 0; i < COUNTERS.length; i++) {
+            COUNTERS[i] = new LongAdder();
+        }
+        for (int i = 0; i < HISTOGRAMS.length; i++) {
+            HISTOGRAMS[i] = new Histogram();
+        }
+    }
+
+    private Metrics() {
+    }
+
+    // Início de uma fase, para passar a record; 0 se desligado
+    static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    static void record(Phase phase, long start) {
+        if (ENABLED) {
+            HISTOGRAMS[phase.ordinal()].record(System.nanoTime() - start);
+        }
+    }
+
+    static void increment(Counter counter) {
+        if (ENABLED) {
+            COUNTERS[counter.ordinal()].increment();
+        }
+    }
+
+    static void add(Counter counter, long amount) {
+        if (ENABLED) {
+            COUNTERS[counter.ordinal()].add(amount);
+        }
+    }
+
+    // Retrato do que foi medido até agora; as outras threads podem continuar gravando enquanto ele é lido
+    static String snapshot() {
+        StringBuilder sb = new StringBuilder("--- 📊 Métricas ---").append(System.lineSeparator());
+        if (!ENABLED) {
+            return sb.append("Métricas desligadas: inicie com --metricas para medir.").toString();
+        }
+        sb.append("Contadores:");
+        for (Counter counter : Counter.values()) {
+            sb.append(counter.ordinal() == 0 ? " " : ", ").append(counter.label).append(' ')
+                    .append(COUNTERS[counter.ordinal()].sum());
+        }
+        sb.append(System.lineSeparator());
+        boolean header = false;
+        for (Phase phase : Phase.values()) {
+            Histogram histogram = HISTOGRAMS[phase.ordinal()];
+            long count = histogram.count.sum();
+            if (count == 0) {
+                continue;
+            }
+            if (!header) {
+                sb.append(String.format("%-18s %10s %10s %10s %10s %10s %10s%n", "Latência (µs)", "n", "média", "p50", "p90", "p99", "máx"));
+                header = true;
+            }
+            sb.append(String.format("%-18s %10d %10.1f %10.1f %10.1f %10.1f %10.1f%n", phase.label, count,
+                    histogram.sum.sum() / 1e3 / count, histogram.percentile(0.50) / 1e3,
+                    histogram.percentile(0.90) / 1e3, histogram.percentile(0.99) / 1e3, histogram.max.get() / 1e3));
+        }
+        return sb.toString().trim();
+    }
+
+    // Valores em nanossegundos. Até SUB, um bucket por valor; acima, cada potência de 2 se divide em SUB
+    // buckets iguais. Cada bucket é um contador atômico, então threads gravam sem se bloquear
+    static final class Histogram {
+        private static final int SUB_BITS = 4;
+        private static final int SUB = 1 << SUB_BITS;
+        private static final int BUCKETS = (64 - SUB_BITS + 1) << SUB_BITS;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        void record(long value) {
+            value = Math.max(0, value);
+            buckets.incrementAndGet(index(value));
+            count.increment();
+            sum.add(value);
+            max.accumulate(value);
+        }
+
+        static int index(long value) {
+            if (value < SUB) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int mantissa = (int) (value >>> (exponent - SUB_BITS)); // Entre SUB e 2 * SUB - 1
+            return ((exponent - SUB_BITS + 1) << SUB_BITS) + mantissa - SUB;
+        }
+
+        // Maior valor que cai no bucket
+        static long highestValue(int index) {
+            if (index < SUB) {
+                return index;
+            }
+            int exponent = (index >>> SUB_BITS) + SUB_BITS - 1;
+            long mantissa = (index & (SUB - 1)) + SUB;
+            return ((mantissa + 1) << (exponent - SUB_BITS)) - 1;
+        }
+
+        // Limite superior do bucket em que está o quantil q, sem passar do máximo medido
+        long percentile(double q) {
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                total += buckets.get(i);
+            }
+            long target = Math.max(1, (long) Math.ceil(q * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= target) {
+                    return Math.min(highestValue(i), max.get());
+                }
+            }
+            return max.get();
+        }
+    }
+
+    // Uma partida ao vivo ou simulada no console, do início ao fim
+    @Name("botmino.Partida")
+    @Label("Partida")
+    @Category("Botmino")
+    static final class GameSpan extends Event {
+        @Label("Conjunto")
+        String set;
+
+        @Label("Jogadas")
+        int moves;
+
+        @Label("Resultado")
+        String result;
+    }
+
+    // Uma vez na partida ao vivo: análise, conselho e a jogada digitada
+    @Name("botmino.Vez")
+    @Label("Vez")
+    @Category("Botmino")
+    static final class TurnSpan extends Event {
+        @Label("Jogador")
+        String player;
+
+        @Label("Principal")
+        boolean principal;
+
+        @Label("Jogada")
+        String move;
+    }
+}
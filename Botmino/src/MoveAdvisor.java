@@ -0,0 +1,178 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+// Conselheiro Monte Carlo do jogador principal: sorteia mãos ocultas coerentes com a mesa e joga
+// cada jogada legal até o fim, em paralelo em todos os núcleos, dentro de um orçamento de tempo.
+final class MoveAdvisor {
+    static final long DEFAULT_BUDGET_MS = 200;
+    static final long MAX_BUDGET_MS = 60_000; // Teto do orçamento; também evita estourar o prazo em nanossegundos
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    // Jogada candidata com o resultado das simulações
+    static final class MoveAdvice {
+        final DominoTile tile;
+        final boolean left;
+        final long wins;
+        final long trials;
+
+        MoveAdvice(DominoTile tile, boolean left, long wins, long trials) {
+            this.tile = tile;
+            this.left = left;
+            this.wins = wins;
+            this.trials = trials;
+        }
+
+        double getWinRate() {
+            return trials == 0 ? 0 : (double) wins / trials;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s (%s): %.1f%% de vitória em %d simulações",
+                    tile, left ? "E" : "D", getWinRate() * 100, trials);
+        }
+    }
+
+    private MoveAdvisor() {
+    }
+
+    // Lista as jogadas legais de quem está na vez em position (só a mão dele precisa estar preenchida),
+    // da mais para a menos promissora. unseen: pedras fora da mão dele e da mesa, inclusive as que
+    // dormem; notPossible/handSizes indexados por assento
+    static List<MoveAdvice> advise(GameState position, long[] unseen, long[][] notPossible, int[] handSizes, long budgetMs) {
+        return advise(position, unseen, notPossible, handSizes, null, budgetMs, () -> false);
+    }
+
+    // weights: pesos dos perfis por assento para o sorteio (HandSampler), ou null.
+    // cancelled é consultado entre as simulações; cancelado, devolve o que já foi simulado
+    static List<MoveAdvice> advise(GameState position, long[] unseen, long[][] notPossible, int[] handSizes,
+                                   double[][] weights, long budgetMs, BooleanSupplier cancelled) {
+        int seat = position.turn();
+        int[] moves = new int[GameState.MAX_MOVES];
+        int count = position.legalMoves(moves);
+        List<MoveAdvice> advice = new ArrayList<>();
+        if (moves[0] == GameState.PASS) {
+            return advice;
+        }
+
+        Unknowns unknowns = new Unknowns(seat, unseen, notPossible, handSizes, weights);
+        long deadline = System.nanoTime() + Math.min(budgetMs, MAX_BUDGET_MS) * 1_000_000L;
+        long baseSeed = System.nanoTime();
+        List<Callable<long[]>> workers = new ArrayList<>();
+        for (int w = 0; w < POOL.getParallelism(); w++) {
+            long seed = SplitMix64.mix(baseSeed + w);
+            workers.add(() -> rollouts(seed, Long.MAX_VALUE, deadline, cancelled, position, unseen, unknowns, moves, count));
+        }
+        long[] totals = new long[2 * count];
+        try {
+            for (Future<long[]> result : POOL.invokeAll(workers)) {
+                long[] partial = result.get();
+                for (int i = 0; i < totals.length; i++) {
+                    totals[i] += partial[i];
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao simular as jogadas.", e.getCause());
+        }
+
+        addAdvice(advice, moves, count, totals);
+        advice.sort(Comparator.comparingDouble(MoveAdvice::getWinRate).reversed());
+        return advice;
+    }
+
+    // Como advise, mas com um número fixo de sorteios numa só thread, a partir de seed: a mesma posição
+    // e a mesma semente dão sempre o mesmo resultado. As jogadas saem na ordem de GameState.legalMoves
+    static List<MoveAdvice> evaluate(GameState position, long[] unseen, long[][] notPossible, int[] handSizes,
+                                     int samples, long seed) {
+        int[] moves = new int[GameState.MAX_MOVES];
+        int count = position.legalMoves(moves);
+        List<MoveAdvice> advice = new ArrayList<>();
+        if (moves[0] == GameState.PASS) {
+            return advice;
+        }
+        Unknowns unknowns = new Unknowns(position.turn(), unseen, notPossible, handSizes, null);
+        addAdvice(advice, moves, count, rollouts(seed, samples, Long.MAX_VALUE, () -> false, position, unseen,
+                unknowns, moves, count));
+        return advice;
+    }
+
+    private static void addAdvice(List<MoveAdvice> advice, int[] moves, int count, long[] totals) {
+        for (int m = 0; m < count; m++) {
+            advice.add(new MoveAdvice(DominoTile.byOrdinal(GameState.tileOf(moves[m])), !GameState.isRight(moves[m]),
+                    totals[2 * m], totals[2 * m + 1]));
+        }
+    }
+
+    // O que o sorteio pode pôr em cada mão oculta. O que não está em nenhuma mão dorme: o monte entra no
+    // sorteio como mais um jogador, sem peso
+    private static final class Unknowns {
+        final long[][] allowed;
+        final int[] sizes;
+        final double[][] weights; // Por assento, ou null
+
+        Unknowns(int seat, long[] unseen, long[][] notPossible, int[] handSizes, double[][] weights) {
+            this.weights = weights;
+            int sleeping = TileSet.size(unseen);
+            for (int other = 0; other < GameState.PLAYERS; other++) {
+                if (other != seat) sleeping -= handSizes[other];
+            }
+            int holders = sleeping > 0 ? HandSampler.MAX_HOLDERS : GameState.PLAYERS;
+            allowed = new long[holders][TileSet.WORDS];
+            sizes = new int[holders];
+            for (int other = 0; other < GameState.PLAYERS; other++) {
+                if (other == seat) continue;
+                TileSet.minus(unseen, notPossible[other], allowed[other]);
+                sizes[other] = handSizes[other];
+            }
+            if (sleeping > 0) {
+                TileSet.copy(unseen, allowed[GameState.PLAYERS]);
+                sizes[GameState.PLAYERS] = sleeping;
+            }
+        }
+    }
+
+    // Cada worker tem seu próprio estado, simulador e sorteador; devolve (vitórias, simulações) por jogada.
+    // Para no que vier primeiro: samples sorteios, o prazo ou o cancelamento
+    private static long[] rollouts(long seed, long samples, long deadline, BooleanSupplier cancelled, GameState position,
+                                   long[] unseen, Unknowns unknowns, int[] moves, int count) {
+        long[][] allowed = unknowns.allowed;
+        int[] sizes = unknowns.sizes;
+        HeadlessSimulator simulator = new HeadlessSimulator();
+        HandSampler sampler = new HandSampler(seed);
+        GameState root = GameState.like(position);
+        GameState rollout = GameState.like(position);
+        root.copyFrom(position);
+        int seat = root.turn();
+        long[][] hands = new long[sizes.length][TileSet.WORDS];
+        long[] result = new long[2 * count];
+        for (long n = 0; n < samples && System.nanoTime() < deadline && !cancelled.getAsBoolean(); n++) {
+            if (!sampler.sample(unseen, allowed, sizes, unknowns.weights, hands)) {
+                break; // Informação incoerente: nenhuma distribuição possível
+            }
+            for (int other = 0; other < GameState.PLAYERS; other++) {
+                if (other != seat) root.setHand(other, hands[other]);
+            }
+            for (int m = 0; m < count; m++) {
+                long token = root.apply(moves[m]);
+                boolean won = root.isHandEmpty(seat);
+                if (!won) {
+                    rollout.copyFrom(root);
+                    won = simulator.playOut(rollout) == seat;
+                }
+                root.undo(moves[m], token);
+                if (won) result[2 * m]++;
+                result[2 * m + 1]++;
+            }
+        }
+        return result;
+    }
+}
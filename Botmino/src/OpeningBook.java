@@ -0,0 +1,212 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Livro de aberturas do duplo-seis: para cada uma das 1.184.040 mãos possíveis, a melhor pedra para o
+// principal abrir a partida (mesa vazia) e sua chance de vitória. Gerado offline com MoveAdvisor.evaluate
+// e lido por mapeamento de memória, com busca binária direto no arquivo, sem copiar nada.
+// As chaves são as mãos exatas: trocar os números das pedras não preserva o jogo (o jogo fechado é
+// decidido pela contagem de pontos), e acrescentar as primeiras pedras dos adversários multiplicaria as
+// posições por 21 a cada pedra.
+// Layout: MAGIC, VERSION, amostras por mão, nº de mãos; as mãos (int, em ordem crescente; o bit t é a
+// pedra de índice local t); os valores (int), na mesma ordem: a pedra (5 bits) e a chance em décimos de milésimo.
+final class OpeningBook {
+    static final Path DEFAULT_FILE = Paths.get("aberturas.livro");
+    static final int DEFAULT_SAMPLES = 500;
+
+    private static final int MAGIC = 0x444F4D41; // "DOMA"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int TILES = DominoSet.DOUBLE_SIX.tileCount;
+    private static final int HANDS_PER_TASK = 4096;
+    private static final int RATE_SCALE = 10_000;
+
+    // Índice local (0 a 27) de cada ordinal do duplo-seis, -1 fora dele, e o inverso
+    private static final int[] LOCAL = new int[TileSet.TILE_COUNT];
+    private static final int[] ORDINAL = new int[TILES];
+
+    static {
+        Arrays.fill(LOCAL, -1);
+        int local = 0;
+        for (int ordinal = 0; ordinal < TileSet.TILE_COUNT; ordinal++) {
+            if (DominoSet.DOUBLE_SIX.contains(DominoTile.byOrdinal(ordinal))) {
+                LOCAL[ordinal] = local;
+                ORDINAL[local++] = ordinal;
+            }
+        }
+    }
+
+    // Abertura do livro: a pedra e a chance de vitória com ela
+    static final class Move {
+        final DominoTile tile;
+        final double winRate;
+
+        Move(DominoTile tile, double winRate) {
+            this.tile = tile;
+            this.winRate = winRate;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("abra com %s: %.1f%% de vitória", tile, winRate * 100);
+        }
+    }
+
+    private final MappedByteBuffer data;
+    private final int count;
+
+    private OpeningBook(MappedByteBuffer data, int count) {
+        this.data = data;
+        this.count = count;
+    }
+
+    // null se o arquivo não existe; IOException se não for um livro desta versão
+    static OpeningBook open(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("livro de aberturas truncado");
+            }
+            // O mapeamento continua válido depois de fechar o canal
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+                throw new IOException("livro de aberturas inválido");
+            }
+            int count = data.getInt(12);
+            if (count < 0 || channel.size() != HEADER_BYTES + 8L * count) {
+                throw new IOException("livro de aberturas truncado");
+            }
+            return new OpeningBook(data, count);
+        }
+    }
+
+    int size() {
+        return count;
+    }
+
+    // A abertura do livro se o principal vai abrir uma partida de duplo-seis; senão null
+    Move lookup(LiveGame game) {
+        int principal = game.getPrincipal();
+        if (game.getSet() != DominoSet.DOUBLE_SIX || !game.getEvents().isEmpty() || game.currentSeat() != principal) {
+            return null;
+        }
+        int hand = 0;
+        long[] mask = game.getState().getHand(principal);
+        for (int ordinal = TileSet.next(mask, 0); ordinal >= 0; ordinal = TileSet.next(mask, ordinal + 1)) {
+            hand |= 1 << LOCAL[ordinal];
+        }
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int found = data.getInt(HEADER_BYTES + 4 * middle);
+            if (found < hand) {
+                low = middle + 1;
+            } else if (found > hand) {
+                high = middle - 1;
+            } else {
+                int value = data.getInt(HEADER_BYTES + 4 * count + 4 * middle);
+                return new Move(DominoTile.byOrdinal(ORDINAL[value & 31]), (double) (value >>> 5) / RATE_SCALE);
+            }
+        }
+        return null;
+    }
+
+    // Avalia todas as mãos (em paralelo) e grava o livro em file; devolve o nº de mãos
+    static int generate(Path file, int samples, int threads) throws IOException {
+        if (samples <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("amostras e threads devem ser positivas");
+        }
+        int[] hands = hands();
+        int[] values = new int[hands.length];
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int from = 0; from < hands.length; from += HANDS_PER_TASK) {
+            int start = from;
+            int end = Math.min(hands.length, from + HANDS_PER_TASK);
+            tasks.add(() -> {
+                for (int i = start; i < end; i++) {
+                    values[i] = evaluate(hands[i], samples);
+                }
+                return null;
+            });
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (Future<Void> result : pool.invokeAll(tasks)) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("geração do livro interrompida");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao avaliar as aberturas.", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(samples);
+            out.writeInt(hands.length);
+            for (int hand : hands) {
+                out.writeInt(hand);
+            }
+            for (int value : values) {
+                out.writeInt(value);
+            }
+        }
+        return hands.length;
+    }
+
+    // Todas as combinações de handSize pedras entre as TILES, já em ordem crescente (Gosper)
+    private static int[] hands() {
+        int size = DominoSet.DOUBLE_SIX.handSize;
+        List<Integer> hands = new ArrayList<>();
+        for (int hand = (1 << size) - 1; hand < 1 << TILES; ) {
+            hands.add(hand);
+            int lowest = hand & -hand;
+            int ripple = hand + lowest;
+            hand = ripple | ((hand ^ ripple) >>> 2) / lowest;
+        }
+        return hands.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // A posição que o LiveGame monta para o principal que abre: só a mão dele conhecida, nada descartado.
+    // A semente é a própria mão, então gerar de novo dá o mesmo livro
+    private static int evaluate(int hand, int samples) {
+        long[] mask = TileSet.empty();
+        for (int rest = hand; rest != 0; rest &= rest - 1) {
+            TileSet.add(mask, ORDINAL[Integer.numberOfTrailingZeros(rest)]);
+        }
+        GameState position = GameState.forSet(DominoSet.DOUBLE_SIX);
+        for (int seat = 0; seat < GameState.PLAYERS; seat++) {
+            position.setHand(seat, seat == 0 ? mask : TileSet.empty());
+        }
+        position.reset(0);
+        long[][] notPossible = new long[GameState.PLAYERS][TileSet.WORDS];
+        int[] handSizes = new int[GameState.PLAYERS];
+        Arrays.fill(handSizes, DominoSet.DOUBLE_SIX.handSize);
+        MoveAdvisor.MoveAdvice best = null;
+        for (MoveAdvisor.MoveAdvice advice : MoveAdvisor.evaluate(position, TileSet.minus(DominoSet.DOUBLE_SIX.tiles(), mask),
+                notPossible, handSizes, samples, SplitMix64.mix(hand))) {
+            if (best == null || advice.getWinRate() > best.getWinRate()) {
+                best = advice;
+            }
+        }
+        return (int) Math.round(best.getWinRate() * RATE_SCALE) << 5 | LOCAL[best.tile.ordinal()];
+    }
+}
@@ -0,0 +1,59 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Divide um intervalo de partidas entre os núcleos com fork/join. Cada folha usa seu próprio
+// simulador e acumulador; os resultados só são somados no join, sem disputa entre threads.
+// Como cada partida deriva a semente do próprio índice, o resultado não depende do número de threads.
+// Cada folha emite numa cópia de events (fork) e espera seus eventos serem escritos antes de terminar.
+final class ParallelSimulation extends RecursiveTask<SimulationStats> {
+    private static final long serialVersionUID = 1L;
+    private static final long LEAF_GAMES = 1 << 15;
+
+    // A tarefa nunca é serializada; RecursiveTask só é Serializable por herança
+    private final transient DominoSet set;
+    private final transient GameEvents events;
+    private final long masterSeed;
+    private final long firstGame;
+    private final long count;
+
+    private ParallelSimulation(DominoSet set, GameEvents events, long masterSeed, long firstGame, long count) {
+        this.set = set;
+        this.events = events;
+        this.masterSeed = masterSeed;
+        this.firstGame = firstGame;
+        this.count = count;
+    }
+
+    static SimulationStats run(DominoSet set, long masterSeed, long games, int threads) {
+        return run(set, GameEvents.NONE, masterSeed, games, threads);
+    }
+
+    static SimulationStats run(DominoSet set, GameEvents events, long masterSeed, long games, int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return pool.invoke(new ParallelSimulation(set, events, masterSeed, 0, games));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Override
+    protected SimulationStats compute() {
+        if (count <= LEAF_GAMES) {
+            SimulationStats stats = new SimulationStats();
+            HeadlessSimulator simulator = new HeadlessSimulator(set);
+            GameEvents leafEvents = events.fork();
+            simulator.setEvents(leafEvents);
+            simulator.run(masterSeed, firstGame, count, stats);
+            leafEvents.flush();
+            return stats;
+        }
+        long half = count / 2;
+        ParallelSimulation left = new ParallelSimulation(set, events, masterSeed, firstGame, half);
+        ParallelSimulation right = new ParallelSimulation(set, events, masterSeed, firstGame + half, count - half);
+        left.fork();
+        SimulationStats stats = right.compute();
+        stats.merge(left.join());
+        return stats;
+    }
+}
@@ -0,0 +1,106 @@
+import java.util.ArrayList;
+import java.util.List;
+
+class Player {
+    private String name;
+    private List<DominoTile> dominoes = new ArrayList<>();
+    private List<DominoTile> history = new ArrayList<>();
+    private long[] notPossibleTiles = TileSet.empty();
+    private int playCount = 0;
+    private PlayerProfiles.Profile profile; // Hábitos de partidas anteriores; null se não houver
+
+    public Player(String name) {
+        this.name = name;
+    }
+
+    // Cópia independente, para analisar jogadas hipotéticas sem mexer no jogador real
+    public Player(Player other) {
+        this.name = other.name;
+        this.dominoes = new ArrayList<>(other.dominoes);
+        this.history = new ArrayList<>(other.history);
+        this.notPossibleTiles = TileSet.copy(other.notPossibleTiles);
+        this.playCount = other.playCount;
+        this.profile = other.profile;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<DominoTile> getDominoes() {
+        return dominoes;
+    }
+
+    public void setDominoes(List<DominoTile> dominoes) {
+        this.dominoes = dominoes;
+    }
+
+    public List<DominoTile> getHistory() {
+        return history;
+    }
+
+    public void playTile(DominoTile tile) {
+        dominoes.remove(tile);
+        history.add(tile);
+        playCount++;
+    }
+
+    public int getPlayCount() {
+        return playCount;
+    }
+
+    public PlayerProfiles.Profile getProfile() {
+        return profile;
+    }
+
+    public void setProfile(PlayerProfiles.Profile profile) {
+        this.profile = profile;
+    }
+
+    public void addToHistory(DominoTile tile) {
+        history.add(tile);
+    }
+
+    // Desfaz playTile; handIndex é a posição que a pedra ocupava na mão (-1 se a mão não é conhecida)
+    public void unplayTile(DominoTile tile, int handIndex) {
+        if (handIndex >= 0) {
+            dominoes.add(handIndex, tile);
+        }
+        history.remove(history.size() - 1);
+        playCount--;
+    }
+
+    public void removeLastFromHistory() {
+        history.remove(history.size() - 1);
+    }
+
+    public void setNotPossibleTiles(long[] tiles) {
+        notPossibleTiles = TileSet.copy(tiles);
+    }
+
+    public void addToNotPossibleTiles(DominoTile tile) {
+        if (!tile.isPassMarker()) {
+            TileSet.add(notPossibleTiles, tile.ordinal());
+        }
+    }
+
+    public void addToNotPossibleTiles(long[] tiles) {
+        TileSet.addAll(notPossibleTiles, tiles);
+    }
+
+    // A máscara do próprio jogador: quem precisa guardá-la faz uma cópia
+    public long[] getNotPossibleTiles() {
+        return notPossibleTiles;
+    }
+
+    public String getFormattedHistory() {
+        if (history.isEmpty()) {
+            return "Nenhuma jogada realizada ainda";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (DominoTile tile : history) {
+            sb.append(tile).append(" ");
+        }
+        return sb.toString().trim();
+    }
+}
@@ -0,0 +1,153 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Perfis de comportamento dos jogadores, por nome, aprendidos das partidas ao vivo terminadas: se
+// costumam começar pelas pedras pesadas e pelos duplos. Cada perfil guarda só médias móveis de
+// tamanho fixo, atualizadas a cada partida, então o arquivo não cresce com o número de partidas.
+// Numa partida, o perfil vira um peso por pedra para aquele adversário: quem costuma se livrar cedo de
+// um tipo de pedra tem menos chance de ainda tê-la depois de jogar. Os pesos entram no sorteio de mãos
+// do MoveAdvisor e nas probabilidades mostradas (TileProbabilities.reweight).
+// Layout: MAGIC, VERSION, nº de perfis e, por perfil, nome (writeUTF), partidas (long) e as duas médias (double).
+final class PlayerProfiles {
+    private static final int MAGIC = 0x50455246; // "PERF"
+    private static final int VERSION = 1;
+    static final int EARLY_PLAYS = 3; // Jogadas do início de cada partida que entram no perfil
+    private static final double ALPHA = 0.1; // Peso da partida mais recente, depois das 10 primeiras
+    private static final int PRIOR_GAMES = 5; // Com poucas partidas, o perfil vale pouco
+    private static final double STRENGTH = 1.0; // Escala dos pesos, ajustada em partidas simuladas
+
+    // Imutável: a partida em andamento (e as cópias da ponderação) seguem com o perfil que receberam
+    static final class Profile {
+        final long games;
+        // Média de (pontos - maior número) / maior número nas primeiras jogadas: > 0 começa pelas pesadas
+        final double pipBias;
+        // Fração de duplos nas primeiras jogadas menos a fração de duplos no conjunto: > 0 começa pelos duplos
+        final double doubleBias;
+
+        Profile(long games, double pipBias, double doubleBias) {
+            this.games = games;
+            this.pipBias = pipBias;
+            this.doubleBias = doubleBias;
+        }
+
+        // Peso de cada pedra do conjunto (por ordinal) para quem já jogou plays pedras; null se o perfil
+        // ainda não muda nada. Só a razão entre os pesos de uma mesma pedra em mãos diferentes importa
+        double[] tileWeights(DominoSet set, int plays) {
+            int early = Math.min(plays, EARLY_PLAYS);
+            if (early == 0 || games == 0) {
+                return null;
+            }
+            double scale = STRENGTH * early * games / (games + PRIOR_GAMES);
+            double[] weights = new double[TileSet.TILE_COUNT];
+            long[] tiles = set.tiles();
+            for (int ordinal = TileSet.next(tiles, 0); ordinal >= 0; ordinal = TileSet.next(tiles, ordinal + 1)) {
+                DominoTile tile = DominoTile.byOrdinal(ordinal);
+                double preference = pipBias * pipScore(set, tile) + doubleBias * (isDouble(tile) ? 1 : 0);
+                weights[ordinal] = Math.exp(-scale * preference);
+            }
+            return weights;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("perfil de %d partidas: pedras pesadas %+.2f, duplos %+.2f", games, pipBias, doubleBias);
+        }
+    }
+
+    private final Map<String, Profile> profiles = new HashMap<>();
+
+    // null se o jogador ainda não tem partidas registradas
+    Profile get(String name) {
+        return profiles.get(name);
+    }
+
+    int size() {
+        return profiles.size();
+    }
+
+    // Atualiza o perfil de cada jogador com as primeiras jogadas dele no histórico da partida
+    void recordGame(DominoSet set, List<Player> players) {
+        double doubleRate = (double) (set.maxPip + 1) / set.tileCount;
+        for (Player player : players) {
+            int plays = 0;
+            double pips = 0;
+            int doubles = 0;
+            for (DominoTile tile : player.getHistory()) {
+                if (tile.isPassMarker()) continue;
+                pips += pipScore(set, tile);
+                if (isDouble(tile)) doubles++;
+                if (++plays == EARLY_PLAYS) break;
+            }
+            if (plays == 0) {
+                continue; // Não jogou nada: nada a aprender
+            }
+            Profile old = profiles.get(player.getName());
+            long games = old == null ? 0 : old.games;
+            // Média simples nas primeiras partidas, depois média móvel exponencial
+            double rate = Math.max(ALPHA, 1.0 / (games + 1));
+            double pipBias = pips / plays;
+            double doubleBias = (double) doubles / plays - doubleRate;
+            if (old != null) {
+                pipBias = old.pipBias + rate * (pipBias - old.pipBias);
+                doubleBias = old.doubleBias + rate * (doubleBias - old.doubleBias);
+            }
+            profiles.put(player.getName(), new Profile(games + 1, pipBias, doubleBias));
+        }
+    }
+
+    void clear() {
+        profiles.clear();
+    }
+
+    // Entre -1 (0/0) e 1 (a pedra mais pesada do conjunto)
+    private static double pipScore(DominoSet set, DominoTile tile) {
+        return (double) (tile.getSide1() + tile.getSide2() - set.maxPip) / set.maxPip;
+    }
+
+    private static boolean isDouble(DominoTile tile) {
+        return tile.getSide1() == tile.getSide2();
+    }
+
+    void load(Path file) throws IOException {
+        profiles.clear();
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Arquivo de perfis inválido: " + file);
+            }
+            for (int i = in.readInt(); i > 0; i--) {
+                String name = in.readUTF();
+                profiles.put(name, new Profile(in.readLong(), in.readDouble(), in.readDouble()));
+            }
+        }
+    }
+
+    // Grava num arquivo temporário e troca de uma vez, como a classificação
+    void save(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(profiles.size());
+            for (Map.Entry<String, Profile> entry : profiles.entrySet()) {
+                Profile profile = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeLong(profile.games);
+                out.writeDouble(profile.pipBias);
+                out.writeDouble(profile.doubleBias);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,160 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Aproveita o tempo em que o console espera a próxima jogada: numa thread de fundo, joga cada jogada
+// plausível de quem está na vez numa cópia da partida e já calcula a análise da posição seguinte
+// (probabilidades e, se a vez passar ao principal, final resolvido ou conselho). Quando a jogada real
+// chega, o que sobrou é cancelado e a análise correspondente sai do cache, que guarda poucas posições.
+final class Ponderer {
+    static final int MAX_ENTRIES = 64;
+
+    // Análise pronta de uma posição; solution e advice só existem na vez do principal
+    static final class Analysis {
+        final double[][] probabilities;
+        final EndgameSolver.Solution solution;
+        final List<MoveAdvisor.MoveAdvice> advice;
+
+        Analysis(double[][] probabilities, EndgameSolver.Solution solution, List<MoveAdvisor.MoveAdvice> advice) {
+            this.probabilities = probabilities;
+            this.solution = solution;
+            this.advice = advice;
+        }
+    }
+
+    private final Map<PositionKey, Analysis> cache = Collections.synchronizedMap(
+            new LinkedHashMap<PositionKey, Analysis>(MAX_ENTRIES, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<PositionKey, Analysis> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            });
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ponderacao");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Usados só pela thread de fundo
+    private final TileProbabilities calculator = new TileProbabilities();
+    private final EndgameSolver solver = new EndgameSolver();
+    private Future<?> job;
+    private AtomicBoolean cancelled = new AtomicBoolean();
+
+    // Começa a ponderar as jogadas de quem está na vez; a partida é copiada aqui, na thread do console
+    void start(LiveGame game, long budgetMs) {
+        cancel();
+        if (game.isOver()) {
+            return;
+        }
+        LiveGame snapshot = new LiveGame(game);
+        AtomicBoolean flag = new AtomicBoolean();
+        cancelled = flag;
+        job = worker.submit(() -> ponder(snapshot, budgetMs, flag));
+    }
+
+    void cancel() {
+        cancelled.set(true);
+        if (job != null) {
+            job.cancel(false);
+            job = null;
+        }
+    }
+
+    // Análise da posição atual, se já tiver sido calculada
+    Analysis take(LiveGame game) {
+        return cache.remove(new PositionKey(game));
+    }
+
+    void clear() {
+        cancel();
+        cache.clear();
+    }
+
+    private void ponder(LiveGame snapshot, long budgetMs, AtomicBoolean flag) {
+        for (String move : plausibleMoves(snapshot)) {
+            if (flag.get()) {
+                return;
+            }
+            LiveGame next = new LiveGame(snapshot);
+            LiveGame.Outcome outcome = move.equals("p") ? next.pass()
+                    : next.play(Transcript.parseTile(move.substring(0, move.length() - 2)),
+                    move.endsWith("D") ? LiveGame.Side.RIGHT : LiveGame.Side.LEFT);
+            if (next.isOver() || (outcome != LiveGame.Outcome.PLAYED && outcome != LiveGame.Outcome.PASSED)) {
+                continue;
+            }
+            PositionKey position = new PositionKey(next);
+            if (cache.containsKey(position)) {
+                continue;
+            }
+            Analysis analysis = analyze(next, budgetMs, flag);
+            // Uma análise interrompida no meio fica incompleta e não vai para o cache
+            if (!flag.get()) {
+                cache.put(position, analysis);
+            }
+        }
+    }
+
+    private Analysis analyze(LiveGame game, long budgetMs, AtomicBoolean flag) {
+        double[][] probabilities = game.probabilities(calculator);
+        if (game.currentSeat() != game.getPrincipal()) {
+            return new Analysis(probabilities, null, null);
+        }
+        EndgameSolver.Solution solution = game.solveEndgame(calculator, solver);
+        return new Analysis(probabilities, solution, solution == null ? game.advise(budgetMs, flag::get) : null);
+    }
+
+    // Jogadas de quem está na vez, das mais para as menos prováveis, como "x/y E", "x/y D" ou "p".
+    // Para um adversário, são as pedras que ele ainda pode ter, ordenadas pela chance de tê-las
+    private List<String> plausibleMoves(LiveGame game) {
+        int seat = game.currentSeat();
+        GameState state = game.getState();
+        long[] candidates;
+        double[] chance = null;
+        if (seat == game.getPrincipal()) {
+            candidates = state.getHand(seat);
+        } else {
+            // A vista de candidatas da cópia da partida, que só esta thread joga
+            int opponent = seat < game.getPrincipal() ? seat : seat - 1;
+            candidates = game.opponentPossibleTiles()[opponent];
+            double[][] probabilities = game.probabilities(calculator);
+            if (probabilities != null) {
+                chance = probabilities[opponent];
+            }
+        }
+        List<Integer> tiles = new ArrayList<>();
+        for (int tile = TileSet.next(candidates, 0); tile >= 0; tile = TileSet.next(candidates, tile + 1)) {
+            tiles.add(tile);
+        }
+        if (chance != null) {
+            double[] weights = chance;
+            tiles.sort((a, b) -> Double.compare(weights[b], weights[a]));
+        }
+        List<String> moves = new ArrayList<>();
+        int end1 = state.end1();
+        int end2 = state.end2();
+        for (int tile : tiles) {
+            String name = DominoTile.byOrdinal(tile).toString();
+            if (end1 < 0) {
+                moves.add(name + " E");
+                continue;
+            }
+            if (GameState.fits(tile, end1)) {
+                moves.add(name + " E");
+            }
+            // Com as duas pontas iguais, os dois lados levam à mesma posição
+            if (GameState.fits(tile, end2) && (end1 != end2 || !GameState.fits(tile, end1))) {
+                moves.add(name + " D");
+            }
+        }
+        if (seat != game.getPrincipal() || moves.isEmpty()) {
+            moves.add("p");
+        }
+        return moves;
+    }
+}
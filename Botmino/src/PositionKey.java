@@ -0,0 +1,50 @@
+import java.util.Arrays;
+import java.util.List;
+
+// Tudo o que a análise de uma posição ao vivo leva em conta: pontas, vez, passes, jogadas de cada um,
+// mão do principal e o que se sabe de cada jogador. Chave dos caches do Ponderer e do GameAnalyzer.
+// As máscaras entram palavra por palavra, depois das pontas e contagens
+final class PositionKey {
+    private final long[] key;
+
+    PositionKey(LiveGame game) {
+        List<Player> players = game.getPlayers();
+        GameState state = game.getState();
+        key = new long[1 + (2 + players.size()) * TileSet.WORDS];
+        long packed = state.end1() + 1 | (state.end2() + 1) << 4 | state.turn() << 8 | state.passes() << 10;
+        for (int i = 0; i < players.size(); i++) {
+            packed |= (long) players.get(i).getPlayCount() << (16 + 4 * i);
+        }
+        key[0] = packed;
+        int at = 1;
+        at = append(game.getUnseen(), at);
+        at = append(state.getHand(game.getPrincipal()), at);
+        for (Player player : players) {
+            at = append(player.getNotPossibleTiles(), at);
+        }
+    }
+
+    private int append(long[] tiles, int at) {
+        System.arraycopy(tiles, 0, key, at, TileSet.WORDS);
+        return at + TileSet.WORDS;
+    }
+
+    // Espalha todas as palavras num long, para semear sorteios que só dependem da posição
+    long mix() {
+        long hash = 0;
+        for (long word : key) {
+            hash = SplitMix64.mix(hash + SplitMix64.GOLDEN_GAMMA + word);
+        }
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PositionKey && Arrays.equals(key, ((PositionKey) o).key);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(key);
+    }
+}
@@ -0,0 +1,72 @@
+// O que o jogador da vez enxerga da partida: a própria mão, as pontas, as pedras já jogadas e, de cada
+// adversário, quantas pedras ele tem e que números ele não tem (deduzidos dos passes). As estratégias
+// só leem por aqui; quem conduz a partida chama record antes de cada jogada, sem criar objetos.
+final class SeatView {
+    private final long[] setTiles;
+    private final int words;
+    private final long[] played = TileSet.empty();
+    private final long[][] notPossible = new long[GameState.PLAYERS][TileSet.WORDS];
+    private GameState state;
+
+    SeatView(DominoSet set) {
+        this.setTiles = set.tiles();
+        this.words = set.words;
+    }
+
+    // Nova partida sobre state: nada jogado, nada deduzido
+    void reset(GameState state) {
+        this.state = state;
+        java.util.Arrays.fill(played, 0);
+        for (long[] tiles : notPossible) {
+            java.util.Arrays.fill(tiles, 0);
+        }
+    }
+
+    // Registra a jogada de quem está na vez, antes de ela ser aplicada ao estado
+    void record(int move) {
+        if (move == GameState.PASS) {
+            // Quem passa não tem nenhuma pedra com os números das pontas
+            int end1 = state.end1();
+            if (end1 >= 0) {
+                long[] tiles = notPossible[state.turn()];
+                for (int w = 0; w < words; w++) {
+                    tiles[w] |= TileSet.pipWord(end1, w) | TileSet.pipWord(state.end2(), w);
+                }
+            }
+        } else {
+            TileSet.add(played, GameState.tileOf(move));
+        }
+    }
+
+    // Palavras das máscaras em que há pedras do conjunto; as estratégias só percorrem essas
+    int words() {
+        return words;
+    }
+
+    int seat() {
+        return state.turn();
+    }
+
+    int end1() {
+        return state.end1();
+    }
+
+    int end2() {
+        return state.end2();
+    }
+
+    // Palavra word da mão de quem está na vez
+    long handWord(int word) {
+        return state.handWord(state.turn(), word);
+    }
+
+    // Quantas pedras other tem na mão; isso todos veem
+    int handSize(int other) {
+        return state.handSize(other);
+    }
+
+    // Palavra word das pedras que other ainda pode ter, na visão de quem está na vez
+    long possibleWord(int other, int word) {
+        return setTiles[word] & ~played[word] & ~handWord(word) & ~notPossible[other][word];
+    }
+}
@@ -0,0 +1,108 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Servidor local de mesas: cada conexão TCP é uma TableSession atendida por sua própria thread virtual.
+// Protocolo de linhas em UTF-8: o cliente manda um comando por linha e recebe exatamente uma linha.
+// close (chamado pelo gancho de desligamento da JVM) para de aceitar mesas e espera as abertas
+// terminarem; as que continuam conectadas depois de DRAIN_SECONDS têm a leitura encerrada, então
+// terminam o comando em andamento e saem.
+final class SessionServer {
+    static final int DEFAULT_PORT = 7070;
+    private static final int BACKLOG = 4096; // Conexões aguardando aceite quando muitas mesas chegam juntas
+    private static final long DRAIN_SECONDS = 10;
+
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private volatile ServerSocket server;
+
+    void serve(int port) throws IOException {
+        ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor();
+        try (ServerSocket server = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress())) {
+            this.server = server;
+            System.out.println("🖧 Servidor de mesas em " + server.getLocalSocketAddress());
+            while (true) {
+                Socket socket;
+                try {
+                    socket = server.accept();
+                } catch (SocketException e) {
+                    if (server.isClosed()) break; // close
+                    throw e;
+                }
+                openSockets.add(socket);
+                sessions.submit(() -> serveSession(socket));
+            }
+        } finally {
+            drain(sessions);
+            stopped.countDown();
+        }
+    }
+
+    // Para de aceitar conexões e espera serve drenar as mesas abertas
+    void close() throws IOException, InterruptedException {
+        ServerSocket server = this.server;
+        if (server == null) {
+            return;
+        }
+        server.close();
+        stopped.await();
+    }
+
+    private void drain(ExecutorService sessions) {
+        sessions.shutdown();
+        try {
+            if (!sessions.awaitTermination(DRAIN_SECONDS, TimeUnit.SECONDS)) {
+                System.out.println("🖧 Encerrando " + activeSessions.get() + " mesas ainda conectadas");
+                for (Socket socket : openSockets) {
+                    try {
+                        socket.shutdownInput();
+                    } catch (IOException e) {
+                        // Já fechada pelo cliente
+                    }
+                }
+            }
+            sessions.close();
+        } catch (InterruptedException e) {
+            sessions.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void serveSession(Socket socket) {
+        activeSessions.incrementAndGet();
+        TableSession session = new TableSession();
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setTcpNoDelay(true);
+            out.write("ok Botmino pronto (" + activeSessions.get() + " mesas abertas)\n");
+            out.flush();
+            String line;
+            while (!session.isClosed() && (line = in.readLine()) != null) {
+                out.write(session.handle(line));
+                out.write('\n');
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Conexão encerrada pelo cliente
+        } finally {
+            openSockets.remove(socket);
+            activeSessions.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Simulação dividida entre vários processos (JVMs) na mesma máquina, para séries grandes demais para
+// o heap e o coletor de uma JVM só. O coordenador reparte as partidas em um fragmento contíguo por
+// processo; cada trabalhador joga o seu e escreve na saída padrão (um pipe) um resultado parcial
+// binário a cada BLOCK_GAMES partidas. Se um trabalhador morre ou passa do prazo sem mandar um
+// bloco, o coordenador o derruba e relança só o que faltava do fragmento. Se um fragmento desiste,
+// os outros trabalhadores são derrubados na hora, sem esperar o resto da série. Como cada partida
+// deriva a semente do próprio índice, o resultado é o mesmo de ParallelSimulation com a mesma
+// semente, qualquer que seja o número de processos ou de falhas.
+// Protocolo: MAGIC e VERSION (int); por bloco, o índice da primeira partida (long) e SimulationStats.write.
+final class ShardedSimulation {
+    static final String WORKER_FLAG = "--fragmento";
+    static final long BLOCK_GAMES = 1 << 20;
+    static final int MAX_ATTEMPTS = 3; // Lançamentos seguidos sem receber o próximo bloco antes de desistir
+    // Um bloco leva poucos segundos por núcleo; o primeiro inclui a partida da JVM
+    static final long BLOCK_TIMEOUT_SECONDS = 60;
+
+    private static final int MAGIC = 0x444F4D53; // "DOMS"
+    private static final int VERSION = 1;
+    // As partidas simuladas quase não alocam: heap pequeno e coletor serial deixam a memória para os outros processos
+    private static final List<String> WORKER_OPTIONS = List.of("-XX:+UseSerialGC", "-Xmx64m");
+
+    static final class Result {
+        final SimulationStats stats = new SimulationStats();
+        int restarts; // Trabalhadores relançados depois de uma falha
+    }
+
+    private final DominoSet set;
+    private final long masterSeed;
+    private final long blockTimeoutSeconds;
+    private final AtomicInteger restarts = new AtomicInteger();
+    private final Set<Process> workers = ConcurrentHashMap.newKeySet();
+    // Derruba o trabalhador que passa do prazo de um bloco; o leitor vê o fim do pipe e relança
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor();
+    private volatile boolean cancelled;
+
+    private ShardedSimulation(DominoSet set, long masterSeed, int workers) {
+        this.set = set;
+        this.masterSeed = masterSeed;
+        // Com mais trabalhadores que núcleos, cada um anda proporcionalmente mais devagar
+        int cores = Runtime.getRuntime().availableProcessors();
+        this.blockTimeoutSeconds = BLOCK_TIMEOUT_SECONDS * ((workers + cores - 1) / cores);
+    }
+
+    static Result run(DominoSet set, long masterSeed, long games, int workers) throws IOException {
+        if (games < 0 || workers <= 0) {
+            throw new IllegalArgumentException("partidas e processos devem ser positivos");
+        }
+        return new ShardedSimulation(set, masterSeed, workers).coordinate(games, workers);
+    }
+
+    private Result coordinate(long games, int count) throws IOException {
+        Result result = new Result();
+        // Um leitor por pipe; as threads virtuais só esperam os trabalhadores
+        ExecutorService readers = Executors.newVirtualThreadPerTaskExecutor();
+        CompletionService<SimulationStats> shards = new ExecutorCompletionService<>(readers);
+        try {
+            for (int worker = 0; worker < count; worker++) {
+                long first = games * worker / count;
+                long end = games * (worker + 1) / count;
+                shards.submit(() -> runShard(first, end));
+            }
+            // Na ordem em que terminam, para que a primeira falha apareça sem esperar os fragmentos anteriores
+            for (int worker = 0; worker < count; worker++) {
+                result.stats.merge(shards.take().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("simulação interrompida");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("Falha ao coordenar os processos.", e.getCause());
+        } finally {
+            cancel(readers);
+        }
+        result.restarts = restarts.get();
+        return result;
+    }
+
+    // Sem efeito depois de uma série completa. Numa falha, derruba os trabalhadores ainda vivos: os
+    // leitores presos no pipe recebem o fim da saída e terminam sem relançar. O watchdog só para
+    // depois dos leitores, que ainda podem agendar prazos
+    private void cancel(ExecutorService readers) {
+        cancelled = true;
+        readers.shutdownNow();
+        for (Process process : workers) {
+            process.destroyForcibly();
+        }
+        readers.close();
+        watchdog.shutdownNow();
+    }
+
+    // Joga [first, end) em um trabalhador, relançando-o a partir do primeiro bloco não recebido
+    private SimulationStats runShard(long first, long end) throws IOException {
+        SimulationStats stats = new SimulationStats();
+        long next = first;
+        int attempts = 0; // Lançamentos que tentaram entregar o bloco next
+        while (next < end) {
+            if (attempts > 0) {
+                restarts.incrementAndGet();
+            }
+            long before = next;
+            Process process = launch(set, masterSeed, next, end - next);
+            workers.add(process);
+            if (cancelled) {
+                // cancel passou antes de add: ninguém mais derruba este trabalhador
+                process.destroyForcibly();
+                workers.remove(process);
+                throw cancelled(first, end);
+            }
+            ScheduledFuture<?> timeout = watchdog.schedule(process::destroyForcibly, blockTimeoutSeconds, TimeUnit.SECONDS);
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(process.getInputStream()))) {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                    throw new IOException("resposta inválida do trabalhador");
+                }
+                while (next < end) {
+                    long blockFirst = in.readLong();
+                    SimulationStats block = SimulationStats.read(in);
+                    if (blockFirst != next) {
+                        throw new IOException("bloco fora de ordem do trabalhador");
+                    }
+                    // Só entra no total o bloco lido inteiro
+                    stats.merge(block);
+                    next += block.getGames();
+                    timeout.cancel(false);
+                    timeout = watchdog.schedule(process::destroyForcibly, blockTimeoutSeconds, TimeUnit.SECONDS);
+                }
+            } catch (IOException e) {
+                // Trabalhador morto, travado ou corrompido: o que já chegou fica, o resto vai para o próximo lançamento
+            } finally {
+                timeout.cancel(false);
+                process.destroy();
+                workers.remove(process);
+            }
+            if (cancelled) {
+                throw cancelled(first, end);
+            }
+            // Um lançamento que entregou algum bloco zera a conta: o limite vale por bloco, não por fragmento
+            attempts = next > before ? 1 : attempts + 1;
+            if (next < end && attempts >= MAX_ATTEMPTS) {
+                throw new IOException("o bloco da partida " + next + " falhou " + MAX_ATTEMPTS + " vezes");
+            }
+        }
+        return stats;
+    }
+
+    private static IOException cancelled(long first, long end) {
+        return new IOException("fragmento [" + first + ", " + end + ") cancelado");
+    }
+
+    private static Process launch(DominoSet set, long masterSeed, long first, long count) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(WORKER_OPTIONS);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(DominoGame.class.getName());
+        command.add(WORKER_FLAG);
+        command.add(set.name);
+        command.add(Long.toString(masterSeed));
+        command.add(Long.toString(first));
+        command.add(Long.toString(count));
+        return new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+    }
+
+    // Lado do trabalhador: joga [first, first + count) e escreve cada bloco assim que termina.
+    // Escreve direto no descritor da saída padrão, sem o PrintStream de System.out
+    static void work(DominoSet set, long masterSeed, long first, long count) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.flush();
+        HeadlessSimulator simulator = new HeadlessSimulator(set);
+        for (long block = first; block < first + count; block += BLOCK_GAMES) {
+            SimulationStats stats = new SimulationStats();
+            simulator.run(masterSeed, block, Math.min(BLOCK_GAMES, first + count - block), stats);
+            out.writeLong(block);
+            stats.write(out);
+            out.flush();
+        }
+    }
+}
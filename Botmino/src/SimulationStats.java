@@ -0,0 +1,107 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Estatísticas agregadas de uma série de partidas simuladas
+final class SimulationStats {
+    private final long[] winsBySeat = new long[HeadlessSimulator.PLAYERS];
+    private long games;
+    private long blockedGames;
+    private long draws; // Jogos fechados com empate na contagem de pontos
+    private long totalTurns;
+    private long totalPlays;
+
+    void recordGame(int winner, boolean blocked, int turns, int plays) {
+        games++;
+        if (blocked) {
+            blockedGames++;
+        }
+        if (winner >= 0) {
+            winsBySeat[winner]++;
+        } else {
+            draws++;
+        }
+        totalTurns += turns;
+        totalPlays += plays;
+    }
+
+    void merge(SimulationStats other) {
+        for (int seat = 0; seat < winsBySeat.length; seat++) {
+            winsBySeat[seat] += other.winsBySeat[seat];
+        }
+        games += other.games;
+        blockedGames += other.blockedGames;
+        draws += other.draws;
+        totalTurns += other.totalTurns;
+        totalPlays += other.totalPlays;
+    }
+
+    // Formato compacto dos resultados parciais de ShardedSimulation: os contadores, um long cada
+    void write(DataOutput out) throws IOException {
+        for (long wins : winsBySeat) {
+            out.writeLong(wins);
+        }
+        out.writeLong(games);
+        out.writeLong(blockedGames);
+        out.writeLong(draws);
+        out.writeLong(totalTurns);
+        out.writeLong(totalPlays);
+    }
+
+    static SimulationStats read(DataInput in) throws IOException {
+        SimulationStats stats = new SimulationStats();
+        for (int seat = 0; seat < stats.winsBySeat.length; seat++) {
+            stats.winsBySeat[seat] = in.readLong();
+        }
+        stats.games = in.readLong();
+        stats.blockedGames = in.readLong();
+        stats.draws = in.readLong();
+        stats.totalTurns = in.readLong();
+        stats.totalPlays = in.readLong();
+        return stats;
+    }
+
+    long getGames() {
+        return games;
+    }
+
+    long getWins(int seat) {
+        return winsBySeat[seat];
+    }
+
+    long getBlockedGames() {
+        return blockedGames;
+    }
+
+    long getDraws() {
+        return draws;
+    }
+
+    double getWinRate(int seat) {
+        return games == 0 ? 0 : (double) winsBySeat[seat] / games;
+    }
+
+    double getBlockedRatio() {
+        return games == 0 ? 0 : (double) blockedGames / games;
+    }
+
+    double getAverageTurns() {
+        return games == 0 ? 0 : (double) totalTurns / games;
+    }
+
+    double getAveragePlays() {
+        return games == 0 ? 0 : (double) totalPlays / games;
+    }
+
+    String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Partidas simuladas: ").append(games).append('\n');
+        for (int seat = 0; seat < winsBySeat.length; seat++) {
+            sb.append(String.format("Jogador %d: %d vitórias (%.2f%%)%n", seat + 1, winsBySeat[seat], getWinRate(seat) * 100));
+        }
+        sb.append(String.format("Empates: %d%n", draws));
+        sb.append(String.format("Jogos fechados: %d (%.2f%%)%n", blockedGames, getBlockedRatio() * 100));
+        sb.append(String.format("Duração média: %.2f vezes, %.2f pedras jogadas", getAverageTurns(), getAveragePlays()));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,35 @@
+// Gerador pseudoaleatório SplitMix64: estado de um long, sem sincronização e sem alocação
+final class SplitMix64 {
+    static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long state;
+
+    SplitMix64(long seed) {
+        this.state = seed;
+    }
+
+    void setSeed(long seed) {
+        this.state = seed;
+    }
+
+    long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix(state);
+    }
+
+    // Inteiro em [0, bound) pelo método de multiplicação de Lemire
+    int nextInt(int bound) {
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+
+    // Real em [0, 1) com os 53 bits altos
+    double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
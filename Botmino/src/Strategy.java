@@ -0,0 +1,148 @@
+// Política de um bot: dada a visão de quem está na vez, escolhe uma das jogadas legais.
+// As implementações não guardam estado entre chamadas, então uma instância serve a todas as threads.
+interface Strategy {
+    // Nomes aceitos por byName, na ordem do torneio padrão
+    String[] NAMES = {"primeira", "pesada", "diversidade", "inferencia"};
+
+    String name();
+
+    // moves[0..count): jogadas legais na ordem de GameState.legalMoves, nunca só PASS
+    int choose(SeatView view, int[] moves, int count);
+
+    // IllegalArgumentException para nome desconhecido
+    static Strategy byName(String name) {
+        switch (name.toLowerCase()) {
+            case "primeira":
+                return new FirstFit();
+            case "pesada":
+                return new HeaviestPip();
+            case "diversidade":
+                return new KeepDiversity();
+            case "inferencia":
+                return new Inference();
+            default:
+                throw new IllegalArgumentException("estratégia desconhecida '" + name + "' (use " + String.join(", ", NAMES) + ")");
+        }
+    }
+
+    // Pontos da pedra jogada
+    static int pips(int move) {
+        int tile = GameState.tileOf(move);
+        return TileSet.side1(tile) + TileSet.side2(tile);
+    }
+
+    // A mesma política de HeadlessSimulator.firstFitMove: legalMoves já vem em ordem de pedra,
+    // com a ponta esquerda antes da direita
+    final class FirstFit implements Strategy {
+        @Override
+        public String name() {
+            return "primeira";
+        }
+
+        @Override
+        public int choose(SeatView view, int[] moves, int count) {
+            return moves[0];
+        }
+    }
+
+    // Livra-se primeiro das pedras de mais pontos, que pesam num jogo fechado
+    final class HeaviestPip implements Strategy {
+        @Override
+        public String name() {
+            return "pesada";
+        }
+
+        @Override
+        public int choose(SeatView view, int[] moves, int count) {
+            int best = moves[0];
+            for (int i = 1; i < count; i++) {
+                if (pips(moves[i]) > pips(best)) {
+                    best = moves[i];
+                }
+            }
+            return best;
+        }
+    }
+
+    // Guarda na mão o maior número de números diferentes, para ter resposta a mais pontas;
+    // no empate, joga a mais pesada
+    final class KeepDiversity implements Strategy {
+        @Override
+        public String name() {
+            return "diversidade";
+        }
+
+        @Override
+        public int choose(SeatView view, int[] moves, int count) {
+            int best = moves[0];
+            int bestScore = Integer.MIN_VALUE;
+            for (int i = 0; i < count; i++) {
+                int played = GameState.tileOf(moves[i]);
+                int numbers = 0;
+                for (int w = 0; w < view.words(); w++) {
+                    for (long rest = view.handWord(w); rest != 0; rest &= rest - 1) {
+                        int tile = w << 6 | Long.numberOfTrailingZeros(rest);
+                        if (tile != played) {
+                            numbers |= 1 << TileSet.side1(tile) | 1 << TileSet.side2(tile);
+                        }
+                    }
+                }
+                int score = Integer.bitCount(numbers) * 100 + pips(moves[i]);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = moves[i];
+                }
+            }
+            return best;
+        }
+    }
+
+    // Usa o que se sabe das mãos alheias (pedras jogadas, a própria mão e os números que cada um já
+    // mostrou não ter ao passar): deixa nas pontas os números para os quais os adversários têm menos
+    // pedras possíveis, pesando em dobro o próximo a jogar; no empate, joga a mais pesada
+    final class Inference implements Strategy {
+        @Override
+        public String name() {
+            return "inferencia";
+        }
+
+        @Override
+        public int choose(SeatView view, int[] moves, int count) {
+            int seat = view.seat();
+            int next = (seat + 1) % GameState.PLAYERS;
+            int best = moves[0];
+            int bestScore = Integer.MIN_VALUE;
+            for (int i = 0; i < count; i++) {
+                int move = moves[i];
+                int tile = GameState.tileOf(move);
+                int a = TileSet.side1(tile);
+                int b = TileSet.side2(tile);
+                int end1 = view.end1();
+                int end2 = view.end2();
+                if (end1 < 0) {
+                    end1 = a;
+                    end2 = b;
+                } else if (!GameState.isRight(move)) {
+                    end1 = a == end1 ? b : a;
+                } else {
+                    end2 = a == end2 ? b : a;
+                }
+                int answers = 0;
+                for (int other = 0; other < GameState.PLAYERS; other++) {
+                    if (other == seat) continue;
+                    int weight = other == next ? 2 : 1;
+                    for (int w = 0; w < view.words(); w++) {
+                        long matching = TileSet.pipWord(end1, w) | TileSet.pipWord(end2, w);
+                        answers += weight * Long.bitCount(view.possibleWord(other, w) & matching);
+                    }
+                }
+                int score = -answers * 100 + pips(move);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = move;
+                }
+            }
+            return best;
+        }
+    }
+}
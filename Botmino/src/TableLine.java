@@ -0,0 +1,81 @@
+// Linha de pedras na mesa. Cada posição guarda (ordinal << 1 | invertida), sem criar objetos por jogada
+final class TableLine {
+    private final int[] placements = new int[2 * TileSet.TILE_COUNT + 1];
+    private int head = TileSet.TILE_COUNT; // Primeira posição ocupada
+    private int tail = TileSet.TILE_COUNT; // Posição após a última ocupada
+
+    void addLeft(DominoTile tile, boolean flipped) {
+        placements[--head] = tile.ordinal() << 1 | (flipped ? 1 : 0);
+    }
+
+    void addRight(DominoTile tile, boolean flipped) {
+        placements[tail++] = tile.ordinal() << 1 | (flipped ? 1 : 0);
+    }
+
+    // Tira a pedra da ponta; usado para desfazer jogadas
+    void removeLeft() {
+        head++;
+    }
+
+    void removeRight() {
+        tail--;
+    }
+
+    boolean isEmpty() {
+        return head == tail;
+    }
+
+    int size() {
+        return tail - head;
+    }
+
+    void copyFrom(TableLine other) {
+        System.arraycopy(other.placements, 0, placements, 0, placements.length);
+        head = other.head;
+        tail = other.tail;
+    }
+
+    void clear() {
+        head = TileSet.TILE_COUNT;
+        tail = TileSet.TILE_COUNT;
+    }
+
+    DominoTile tileAt(int index) {
+        return DominoTile.byOrdinal(placements[head + index] >>> 1);
+    }
+
+    boolean isFlippedAt(int index) {
+        return (placements[head + index] & 1) != 0;
+    }
+
+    // Número exposto na extremidade esquerda (-1 com a mesa vazia)
+    int leftEnd() {
+        if (isEmpty()) return -1;
+        DominoTile tile = tileAt(0);
+        return isFlippedAt(0) ? tile.getSide2() : tile.getSide1();
+    }
+
+    // Número exposto na extremidade direita (-1 com a mesa vazia)
+    int rightEnd() {
+        if (isEmpty()) return -1;
+        int last = size() - 1;
+        DominoTile tile = tileAt(last);
+        return isFlippedAt(last) ? tile.getSide1() : tile.getSide2();
+    }
+
+    String format() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < size(); i++) {
+            DominoTile tile = tileAt(i);
+            if (i > 0) {
+                sb.append(" - "); // Conector visual entre as pedras
+            }
+            if (isFlippedAt(i)) {
+                sb.append(tile.getSide2()).append('/').append(tile.getSide1());
+            } else {
+                sb.append(tile);
+            }
+        }
+        return sb.toString();
+    }
+}
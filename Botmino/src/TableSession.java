@@ -0,0 +1,207 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+// Uma mesa atendida pelo servidor: recebe comandos de texto, um por linha, e devolve uma linha de
+// resposta começando com "ok", "fim" ou "erro". O cabeçalho usa as mesmas chaves das transcrições
+// (conjunto:, jogador:, principal:, mao:, inicia:); depois vêm as jogadas como no console (x/y, x/y E, p, u).
+// Cada sessão é usada por uma única thread; o que é compartilhado entre mesas é só leitura
+// (pedras, máscaras) ou sai de filas sem trava (calculadoras de probabilidade e solucionadores).
+final class TableSession {
+    // Os buffers de probabilidade e a tabela de transposição são grandes demais para cada uma de
+    // milhares de mesas; são emprestados só durante o comando que precisa deles
+    private static final ConcurrentLinkedQueue<TileProbabilities> CALCULATORS = new ConcurrentLinkedQueue<>();
+    private static final ConcurrentLinkedQueue<EndgameSolver> SOLVERS = new ConcurrentLinkedQueue<>();
+    // O pool do conselheiro é de todas as mesas: nenhuma pode prendê-lo por mais que isso
+    private static final long MAX_ADVISOR_BUDGET_MS = 2_000;
+
+    private Transcript setup = new Transcript();
+    private LiveGame game;
+    private long advisorBudgetMs = MoveAdvisor.DEFAULT_BUDGET_MS;
+    private boolean closed;
+    private int lineNumber;
+
+    String handle(String line) {
+        lineNumber++;
+        String command = line.trim();
+        try {
+            if (command.isEmpty()) {
+                return "erro comando vazio";
+            }
+            if (command.indexOf(':') > 0 && !command.startsWith("jogadas")) {
+                if (game != null) {
+                    return "erro a partida já começou; use 'nova' para recomeçar";
+                }
+                setup.accept(command, lineNumber);
+                return "ok";
+            }
+            String[] words = Transcript.split(command.startsWith("jogadas:")
+                    ? command.substring("jogadas:".length()).trim() : command);
+            if (words.length == 0) {
+                return "erro nenhuma jogada";
+            }
+            switch (words[0].toLowerCase()) {
+                case "nova":
+                    setup = new Transcript();
+                    game = null;
+                    return "ok";
+                case "sair":
+                    closed = true;
+                    return "ok até logo";
+                case "mesa":
+                    return describeTable();
+                case "possiveis":
+                    return possibleTiles();
+                case "conselho":
+                    if (words.length > 1) {
+                        long budgetMs = Long.parseLong(words[1]);
+                        if (budgetMs <= 0) {
+                            return "erro o tempo do conselho deve ser positivo";
+                        }
+                        advisorBudgetMs = Math.min(budgetMs, MAX_ADVISOR_BUDGET_MS);
+                    }
+                    return advice();
+                case "final":
+                    return endgame();
+                default:
+                    return play(words);
+            }
+        } catch (IllegalArgumentException e) {
+            return "erro " + e.getMessage();
+        } catch (RuntimeException e) {
+            // Uma linha com defeito não pode derrubar a mesa nem a conexão
+            return "erro interno ao tratar a linha " + lineNumber + ": " + e;
+        }
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    private LiveGame game() {
+        if (game == null) {
+            setup.validate();
+            List<Player> players = new ArrayList<>();
+            for (String name : setup.players) {
+                players.add(new Player(name));
+            }
+            players.get(setup.principal).setDominoes(new ArrayList<>(setup.hand));
+            game = new LiveGame(setup.set, players, setup.principal, setup.starter);
+        }
+        return game;
+    }
+
+    // Uma linha pode trazer várias jogadas; a resposta é a da última, ou o primeiro erro
+    private String play(String[] tokens) {
+        LiveGame game = game();
+        String response = "ok";
+        for (int i = 0; i < tokens.length; i++) {
+            Player player = game.getPlayers().get(game.currentSeat());
+            LiveGame.Outcome outcome;
+            DominoTile tile = null;
+            if (tokens[i].equalsIgnoreCase("u")) {
+                if (!game.undo()) {
+                    return "erro nada para desfazer";
+                }
+                response = "ok desfeito, vez de " + game.getPlayers().get(game.currentSeat()).getName();
+                continue;
+            }
+            if (tokens[i].equalsIgnoreCase("p")) {
+                outcome = game.pass();
+            } else {
+                tile = Transcript.parseTile(tokens[i]);
+                LiveGame.Side side = LiveGame.Side.ANY;
+                if (i + 1 < tokens.length && (tokens[i + 1].equalsIgnoreCase("E") || tokens[i + 1].equalsIgnoreCase("D"))) {
+                    side = tokens[++i].equalsIgnoreCase("E") ? LiveGame.Side.LEFT : LiveGame.Side.RIGHT;
+                }
+                outcome = game.play(tile, side);
+            }
+            switch (outcome) {
+                case PLAYED:
+                    response = "ok " + player.getName() + " jogou " + tile;
+                    break;
+                case PASSED:
+                    response = "ok " + player.getName() + " passou";
+                    break;
+                case WON:
+                    return "fim " + player.getName() + " bateu";
+                case BLOCKED:
+                    return "fim " + Transcript.BLOCKED;
+                case NEEDS_SIDE:
+                    return "erro " + tile + " encaixa nos dois lados: envie " + tile + " E ou " + tile + " D";
+                case NO_FIT:
+                    return "erro " + tile + " não encaixa na mesa";
+                case NOT_IN_HAND:
+                    return "erro " + tile + " não está na mão do principal";
+                case NOT_AVAILABLE:
+                    return "erro " + tile + " já foi jogada ou é do principal";
+                case GAME_OVER:
+                    return "erro a partida já terminou";
+            }
+        }
+        return response;
+    }
+
+    private String describeTable() {
+        LiveGame game = game();
+        return "ok mesa " + game.getTable().format() + " vez de " + game.getPlayers().get(game.currentSeat()).getName();
+    }
+
+    private String possibleTiles() {
+        LiveGame game = game();
+        TileProbabilities calculator = borrow(CALCULATORS, TileProbabilities::new);
+        double[][] probabilities;
+        try {
+            probabilities = game.probabilities(calculator);
+        } finally {
+            CALCULATORS.offer(calculator);
+        }
+        long[][] possible = game.opponentPossibleTiles();
+        StringBuilder sb = new StringBuilder("ok");
+        int opponent = 0;
+        for (int i = 0; i < game.getPlayers().size(); i++) {
+            if (i == game.getPrincipal()) continue;
+            sb.append(opponent == 0 ? " " : "; ").append(game.getPlayers().get(i).getName()).append(": ")
+                    .append(probabilities == null
+                            ? TileSet.format(possible[opponent])
+                            : TileProbabilities.format(possible[opponent], probabilities[opponent]));
+            opponent++;
+        }
+        return sb.toString();
+    }
+
+    private String advice() {
+        LiveGame game = game();
+        if (game.currentSeat() != game.getPrincipal()) {
+            return "erro o conselho é só para a vez do principal";
+        }
+        List<MoveAdvisor.MoveAdvice> advice = game.advise(advisorBudgetMs);
+        if (advice.isEmpty()) {
+            return "ok passe a vez";
+        }
+        StringBuilder sb = new StringBuilder("ok");
+        for (MoveAdvisor.MoveAdvice move : advice) {
+            sb.append(sb.length() == 2 ? " " : "; ").append(move);
+        }
+        return sb.toString();
+    }
+
+    private String endgame() {
+        LiveGame game = game();
+        TileProbabilities calculator = borrow(CALCULATORS, TileProbabilities::new);
+        EndgameSolver solver = borrow(SOLVERS, EndgameSolver::new);
+        try {
+            EndgameSolver.Solution solution = game.solveEndgame(calculator, solver);
+            return solution == null ? "erro o final ainda não está determinado" : "ok " + solution;
+        } finally {
+            CALCULATORS.offer(calculator);
+            SOLVERS.offer(solver);
+        }
+    }
+
+    private static <T> T borrow(ConcurrentLinkedQueue<T> pool, Supplier<T> factory) {
+        T item = pool.poll();
+        return item != null ? item : factory.get();
+    }
+}
@@ -0,0 +1,262 @@
+import java.util.Arrays;
+
+// Probabilidade exata de cada adversário ter cada pedra, contando todas as distribuições das pedras
+// não vistas que respeitam as exclusões e o tamanho de cada mão. Nos conjuntos maiores que o duplo-seis,
+// as pedras que dormem entram como mais um "adversário", sem exclusões. As pedras são agrupadas pela
+// classe de exclusão (o subconjunto de quem ainda pode tê-las), e a contagem é uma programação dinâmica
+// sobre (classes já distribuídas, pedras recebidas pelos três adversários; o monte fica com o resto).
+// Uma passada de trás para frente conta de quantas formas cada estado se completa; outra, de frente
+// para trás, soma quantas pedras de cada classe cada um recebe em média. A chance de uma pedra da
+// classe estar com p é essa média dividida pelo tamanho da classe. Nada é alocado além do resultado.
+final class TileProbabilities {
+    static final int OPPONENTS = 3;
+    static final int HOLDERS = OPPONENTS + 1; // Adversários e o monte das pedras que dormem
+
+    private static final int CLASSES = 1 << HOLDERS;
+    private static final int SLEEPING = OPPONENTS; // Índice do monte
+    private static final int SIDE = DominoSet.MAX_HAND_SIZE + 1;
+    private static final int STATES = SIDE * SIDE * SIDE;
+    private static final double[] FACTORIAL = new double[TileSet.TILE_COUNT + 1];
+    private static final int REWEIGHT_ITERATIONS = 20;
+
+    static {
+        FACTORIAL[0] = 1;
+        for (int i = 1; i < FACTORIAL.length; i++) {
+            FACTORIAL[i] = FACTORIAL[i - 1] * i;
+        }
+    }
+
+    private final int[] classOf = new int[CLASSES];   // Classes não vazias, em ordem
+    private final int[] classCounts = new int[CLASSES];
+    private final long[][] classTiles = new long[CLASSES][TileSet.WORDS];
+    private final int[] tilesBefore = new int[CLASSES + 1]; // Pedras nas classes anteriores à i-ésima
+    private final int[] sizes = new int[HOLDERS];
+    // completions[i][s]: formas de distribuir as classes i, i+1, ... a partir do estado s
+    private final double[][] completions = new double[CLASSES][STATES];
+    private double[] current = new double[STATES];
+    private double[] next = new double[STATES];
+    private final double[] received = new double[HOLDERS];
+
+    // Pedras com a chance de cada uma, ex.: [1/2 50%, 3/3 100%]
+    static String format(long[] tiles, double[] probabilities) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int ordinal = TileSet.next(tiles, 0); ordinal >= 0; ordinal = TileSet.next(tiles, ordinal + 1)) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(DominoTile.byOrdinal(ordinal))
+                    .append(String.format(" %.0f%%", probabilities[ordinal] * 100));
+        }
+        return sb.append(']').toString();
+    }
+
+    // Inclina as probabilidades exatas pelos pesos dos perfis (weights[p][ordinal]; linhas null valem 1):
+    // multiplica cada chance pelo peso e reajusta, alternadamente, cada pedra para somar 1 entre os
+    // jogadores e cada mão para somar o seu tamanho (ajuste proporcional iterativo). Zeros e certezas
+    // continuam zeros e certezas, então as deduções não mudam
+    static void reweight(double[][] probabilities, double[][] weights, long[] unseen, int[] sizes) {
+        int holders = probabilities.length;
+        for (int p = 0; p < holders; p++) {
+            if (weights[p] == null) continue;
+            for (int tile = TileSet.next(unseen, 0); tile >= 0; tile = TileSet.next(unseen, tile + 1)) {
+                probabilities[p][tile] *= weights[p][tile];
+            }
+        }
+        for (int iteration = 0; iteration < REWEIGHT_ITERATIONS; iteration++) {
+            for (int p = 0; p < holders; p++) {
+                double sum = 0;
+                for (int tile = TileSet.next(unseen, 0); tile >= 0; tile = TileSet.next(unseen, tile + 1)) {
+                    sum += probabilities[p][tile];
+                }
+                if (sum == 0) continue;
+                for (int tile = TileSet.next(unseen, 0); tile >= 0; tile = TileSet.next(unseen, tile + 1)) {
+                    probabilities[p][tile] *= sizes[p] / sum;
+                }
+            }
+            // Por último as pedras: nenhuma chance passa de 1
+            for (int tile = TileSet.next(unseen, 0); tile >= 0; tile = TileSet.next(unseen, tile + 1)) {
+                double sum = 0;
+                for (int p = 0; p < holders; p++) {
+                    sum += probabilities[p][tile];
+                }
+                if (sum == 0) continue;
+                for (int p = 0; p < holders; p++) {
+                    probabilities[p][tile] /= sum;
+                }
+            }
+        }
+    }
+
+    // allowed[p]: pedras que o adversário p ainda pode ter; sizes[p]: pedras na mão dele (no máximo
+    // DominoSet.MAX_HAND_SIZE). Um quarto elemento, se houver, é o monte das pedras que dormem.
+    // Retorna a matriz [adversário][ordinal], ou null se nenhuma distribuição for coerente
+    double[][] compute(long[] unseen, long[][] allowed, int[] sizes) {
+        int holders = allowed.length;
+        Arrays.fill(classCounts, 0);
+        for (long[] tiles : classTiles) {
+            Arrays.fill(tiles, 0);
+        }
+        for (int tile = TileSet.next(unseen, 0); tile >= 0; tile = TileSet.next(unseen, tile + 1)) {
+            int cls = 0;
+            for (int p = 0; p < holders; p++) {
+                if (TileSet.contains(allowed[p], tile)) cls |= 1 << p;
+            }
+            if (cls == 0) {
+                return null; // Pedra que ninguém pode ter
+            }
+            classCounts[cls]++;
+            TileSet.add(classTiles[cls], tile);
+        }
+        int used = 0;
+        for (int cls = 1; cls < CLASSES; cls++) {
+            if (classCounts[cls] > 0) {
+                tilesBefore[used + 1] = tilesBefore[used] + classCounts[cls];
+                classOf[used++] = cls;
+            }
+        }
+        int total = 0;
+        for (int p = 0; p < HOLDERS; p++) {
+            this.sizes[p] = p < holders ? sizes[p] : 0;
+            total += this.sizes[p];
+        }
+        for (int p = 0; p < OPPONENTS; p++) {
+            if (this.sizes[p] >= SIDE) {
+                throw new IllegalArgumentException("mão com mais de " + DominoSet.MAX_HAND_SIZE + " pedras");
+            }
+        }
+        if (total != tilesBefore[used]) {
+            return null;
+        }
+
+        countCompletions(used);
+        double deals = completions[0][0];
+        if (deals == 0) {
+            return null;
+        }
+        double[][] result = new double[holders][TileSet.TILE_COUNT];
+        clear(current);
+        current[0] = 1;
+        for (int i = 0; i < used; i++) {
+            distribute(i);
+            int cls = classOf[i];
+            for (int p = 0; p < holders; p++) {
+                double probability = received[p] / (classCounts[cls] * deals);
+                long[] tiles = classTiles[cls];
+                for (int tile = TileSet.next(tiles, 0); tile >= 0; tile = TileSet.next(tiles, tile + 1)) {
+                    result[p][tile] = probability;
+                }
+            }
+            double[] swap = current;
+            current = next;
+            next = swap;
+        }
+        return result;
+    }
+
+    // De trás para frente: completions[i][s] para todas as classes
+    private void countCompletions(int used) {
+        int n0 = sizes[0];
+        int n1 = sizes[1];
+        int n2 = sizes[2];
+        clear(completions[used]);
+        completions[used][state(n0, n1, n2)] = 1;
+        for (int i = used - 1; i >= 0; i--) {
+            double[] after = completions[i + 1];
+            double[] here = completions[i];
+            clear(here);
+            int cls = classOf[i];
+            int c = classCounts[cls];
+            for (int a = 0; a <= n0; a++) {
+                for (int b = 0; b <= n1; b++) {
+                    for (int d = 0; d <= n2; d++) {
+                        int sleeping = tilesBefore[i] - a - b - d;
+                        if (sleeping < 0 || sleeping > sizes[SLEEPING]) continue;
+                        double ways = 0;
+                        int max0 = (cls & 1) != 0 ? Math.min(c, n0 - a) : 0;
+                        for (int k0 = 0; k0 <= max0; k0++) {
+                            int max1 = (cls & 2) != 0 ? Math.min(c - k0, n1 - b) : 0;
+                            for (int k1 = 0; k1 <= max1; k1++) {
+                                int left = c - k0 - k1;
+                                // Sem o monte na classe, o que sobra vai todo para o terceiro
+                                int min2 = (cls & 8) != 0 ? 0 : left;
+                                int max2 = (cls & 4) != 0 ? Math.min(left, n2 - d) : 0;
+                                for (int k2 = min2; k2 <= max2; k2++) {
+                                    int k3 = left - k2;
+                                    if (sleeping + k3 > sizes[SLEEPING]) continue;
+                                    double rest = after[state(a + k0, b + k1, d + k2)];
+                                    if (rest != 0) {
+                                        ways += multinomial(c, k0, k1, k2, k3) * rest;
+                                    }
+                                }
+                            }
+                        }
+                        here[state(a, b, d)] = ways;
+                    }
+                }
+            }
+        }
+    }
+
+    // De frente para trás: leva current (formas de chegar a cada estado antes da classe i) até next e
+    // soma em received[p] as pedras da classe que p recebe, ponderadas pelas distribuições completas
+    private void distribute(int i) {
+        int n0 = sizes[0];
+        int n1 = sizes[1];
+        int n2 = sizes[2];
+        double[] after = completions[i + 1];
+        clear(next);
+        Arrays.fill(received, 0);
+        int cls = classOf[i];
+        int c = classCounts[cls];
+        for (int a = 0; a <= n0; a++) {
+            for (int b = 0; b <= n1; b++) {
+                for (int d = 0; d <= n2; d++) {
+                    double reach = current[state(a, b, d)];
+                    if (reach == 0) continue;
+                    int sleeping = tilesBefore[i] - a - b - d;
+                    int max0 = (cls & 1) != 0 ? Math.min(c, n0 - a) : 0;
+                    for (int k0 = 0; k0 <= max0; k0++) {
+                        int max1 = (cls & 2) != 0 ? Math.min(c - k0, n1 - b) : 0;
+                        for (int k1 = 0; k1 <= max1; k1++) {
+                            int left = c - k0 - k1;
+                            int min2 = (cls & 8) != 0 ? 0 : left;
+                            int max2 = (cls & 4) != 0 ? Math.min(left, n2 - d) : 0;
+                            for (int k2 = min2; k2 <= max2; k2++) {
+                                int k3 = left - k2;
+                                if (sleeping + k3 > sizes[SLEEPING]) continue;
+                                int target = state(a + k0, b + k1, d + k2);
+                                double ways = reach * multinomial(c, k0, k1, k2, k3);
+                                next[target] += ways;
+                                double complete = ways * after[target];
+                                if (complete != 0) {
+                                    received[0] += complete * k0;
+                                    received[1] += complete * k1;
+                                    received[2] += complete * k2;
+                                    received[3] += complete * k3;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static int state(int a, int b, int d) {
+        return (a * SIDE + b) * SIDE + d;
+    }
+
+    private static double multinomial(int c, int k0, int k1, int k2, int k3) {
+        return FACTORIAL[c] / (FACTORIAL[k0] * FACTORIAL[k1] * FACTORIAL[k2] * FACTORIAL[k3]);
+    }
+
+    // Zera só a região usada pelos tamanhos atuais
+    private void clear(double[] table) {
+        for (int a = 0; a <= sizes[0]; a++) {
+            for (int b = 0; b <= sizes[1]; b++) {
+                int from = state(a, b, 0);
+                Arrays.fill(table, from, from + sizes[2] + 1, 0);
+            }
+        }
+    }
+}
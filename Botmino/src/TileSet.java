@@ -0,0 +1,190 @@
+import java.util.Collection;
+
+// Conjunto de pedras representado como máscara de bits: cada pedra ocupa um bit, pelo ordinal.
+// Os ordinais cobrem o maior conjunto suportado (duplo-doze, 91 pedras), então uma máscara é um
+// long[] de WORDS palavras; a pedra t fica no bit t % 64 da palavra t / 64. Os métodos não criam
+// objetos, exceto os que devolvem uma máscara nova (empty, of, copy, withPip, minus); of, copy e minus
+// têm variantes que escrevem numa máscara dada, para o caminho de cada turno.
+final class TileSet {
+    static final int MAX_PIP = 12;
+    static final int TILE_COUNT = (MAX_PIP + 1) * (MAX_PIP + 2) / 2;
+    static final int WORDS = (TILE_COUNT + 63) >>> 6;
+
+    private static final long[][] PIP_MASKS = new long[MAX_PIP + 1][WORDS];
+    private static final int[] SIDE1 = new int[TILE_COUNT];
+    private static final int[] SIDE2 = new int[TILE_COUNT];
+
+    static {
+        for (int index = 0; index < TILE_COUNT; index++) {
+            DominoTile tile = DominoTile.byOrdinal(index);
+            SIDE1[index] = tile.getSide1();
+            SIDE2[index] = tile.getSide2();
+            // Máscara de todas as pedras que contêm cada número
+            add(PIP_MASKS[tile.getSide1()], index);
+            add(PIP_MASKS[tile.getSide2()], index);
+        }
+    }
+
+    private TileSet() {
+    }
+
+    static boolean isValid(int side1, int side2) {
+        return side1 >= 0 && side1 <= MAX_PIP && side2 >= 0 && side2 <= MAX_PIP;
+    }
+
+    static int side1(int index) {
+        return SIDE1[index];
+    }
+
+    static int side2(int index) {
+        return SIDE2[index];
+    }
+
+    static long[] empty() {
+        return new long[WORDS];
+    }
+
+    // Marcadores de passe não ocupam nenhum bit
+    static long[] of(DominoTile tile) {
+        long[] set = empty();
+        if (!tile.isPassMarker()) {
+            add(set, tile.ordinal());
+        }
+        return set;
+    }
+
+    static long[] of(Collection<DominoTile> tiles) {
+        long[] set = empty();
+        for (DominoTile tile : tiles) {
+            if (!tile.isPassMarker()) {
+                add(set, tile.ordinal());
+            }
+        }
+        return set;
+    }
+
+    // Escreve em into as pedras de tiles e devolve into
+    static long[] of(Collection<DominoTile> tiles, long[] into) {
+        for (int w = 0; w < WORDS; w++) {
+            into[w] = 0;
+        }
+        for (DominoTile tile : tiles) {
+            if (!tile.isPassMarker()) {
+                add(into, tile.ordinal());
+            }
+        }
+        return into;
+    }
+
+    static long[] copy(long[] set) {
+        return set.clone();
+    }
+
+    static long[] copy(long[] set, long[] into) {
+        System.arraycopy(set, 0, into, 0, WORDS);
+        return into;
+    }
+
+    // Cópia da máscara das pedras que contêm pip
+    static long[] withPip(int pip) {
+        return PIP_MASKS[pip].clone();
+    }
+
+    // Palavra word da máscara de pip, para os laços que não podem criar objetos
+    static long pipWord(int pip, int word) {
+        return PIP_MASKS[pip][word];
+    }
+
+    static boolean contains(long[] set, int tile) {
+        return (set[tile >>> 6] & 1L << tile) != 0;
+    }
+
+    static boolean contains(long[] set, DominoTile tile) {
+        return !tile.isPassMarker() && contains(set, tile.ordinal());
+    }
+
+    static void add(long[] set, int tile) {
+        set[tile >>> 6] |= 1L << tile;
+    }
+
+    static void remove(long[] set, int tile) {
+        set[tile >>> 6] &= ~(1L << tile);
+    }
+
+    // Operações no lugar: set recebe o resultado
+    static void addAll(long[] set, long[] other) {
+        for (int w = 0; w < WORDS; w++) {
+            set[w] |= other[w];
+        }
+    }
+
+    static void removeAll(long[] set, long[] other) {
+        for (int w = 0; w < WORDS; w++) {
+            set[w] &= ~other[w];
+        }
+    }
+
+    static void retainAll(long[] set, long[] other) {
+        for (int w = 0; w < WORDS; w++) {
+            set[w] &= other[w];
+        }
+    }
+
+    // Nova máscara com as pedras de set que não estão em other
+    static long[] minus(long[] set, long[] other) {
+        return minus(set, other, empty());
+    }
+
+    // O mesmo em into, que pode ser o próprio set; devolve into
+    static long[] minus(long[] set, long[] other, long[] into) {
+        for (int w = 0; w < WORDS; w++) {
+            into[w] = set[w] & ~other[w];
+        }
+        return into;
+    }
+
+    static boolean isEmpty(long[] set) {
+        for (int w = 0; w < WORDS; w++) {
+            if (set[w] != 0) return false;
+        }
+        return true;
+    }
+
+    static int size(long[] set) {
+        int size = 0;
+        for (int w = 0; w < WORDS; w++) {
+            size += Long.bitCount(set[w]);
+        }
+        return size;
+    }
+
+    // Menor pedra de set com ordinal >= from, ou -1. Percorre a máscara sem criar objetos:
+    //   for (int t = TileSet.next(set, 0); t >= 0; t = TileSet.next(set, t + 1))
+    static int next(long[] set, int from) {
+        int word = from >>> 6;
+        if (word >= WORDS) {
+            return -1;
+        }
+        long rest = set[word] & -1L << from;
+        while (true) {
+            if (rest != 0) {
+                return word << 6 | Long.numberOfTrailingZeros(rest);
+            }
+            if (++word == WORDS) {
+                return -1;
+            }
+            rest = set[word];
+        }
+    }
+
+    static String format(long[] set) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int index = next(set, 0); index >= 0; index = next(set, index + 1)) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(DominoTile.byOrdinal(index));
+        }
+        return sb.append(']').toString();
+    }
+}
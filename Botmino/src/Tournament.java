@@ -0,0 +1,277 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Torneio entre estratégias em rodízio: cada mesa reúne quatro delas (todas as combinações, ou as
+// que houver repetidas em volta da mesa se forem menos de quatro), e cada distribuição é jogada em
+// todas as ordens de assento de todas as mesas, para que nem a mão nem a posição favoreçam ninguém.
+// Divide as distribuições entre os núcleos como ParallelSimulation; cada distribuição deriva a
+// semente do próprio índice, então o resultado não depende do número de threads.
+final class Tournament extends RecursiveTask<Tournament.Standings> {
+    private static final long serialVersionUID = 1L;
+    private static final long LEAF_DEALS = 1 << 10;
+    private static final int PLAYERS = GameState.PLAYERS;
+
+    // Como em ParallelSimulation, a tarefa nunca é serializada
+    private final transient DominoSet set;
+    private final transient Strategy[] strategies;
+    private final int[][] seatings;
+    private final long masterSeed;
+    private final long firstDeal;
+    private final long count;
+
+    private Tournament(DominoSet set, Strategy[] strategies, int[][] seatings, long masterSeed, long firstDeal, long count) {
+        this.set = set;
+        this.strategies = strategies;
+        this.seatings = seatings;
+        this.masterSeed = masterSeed;
+        this.firstDeal = firstDeal;
+        this.count = count;
+    }
+
+    static Standings run(DominoSet set, Strategy[] strategies, long masterSeed, long deals, int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return pool.invoke(new Tournament(set, strategies, seatings(strategies.length), masterSeed, 0, deals));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Ordens de assento jogadas em cada distribuição: seating[seat] é o índice da estratégia
+    static int[][] seatings(int strategies) {
+        if (strategies < 2) {
+            throw new IllegalArgumentException("o torneio precisa de pelo menos duas estratégias");
+        }
+        List<int[]> tables = new ArrayList<>();
+        if (strategies < PLAYERS) {
+            int[] table = new int[PLAYERS];
+            for (int seat = 0; seat < PLAYERS; seat++) {
+                table[seat] = seat % strategies;
+            }
+            tables.add(table);
+        } else {
+            combinations(strategies, new int[PLAYERS], 0, 0, tables);
+        }
+        List<int[]> seatings = new ArrayList<>();
+        for (int[] table : tables) {
+            permutations(table, 0, seatings);
+        }
+        return seatings.toArray(new int[0][]);
+    }
+
+    private static void combinations(int n, int[] table, int size, int from, List<int[]> out) {
+        if (size == PLAYERS) {
+            out.add(table.clone());
+            return;
+        }
+        for (int i = from; i < n; i++) {
+            table[size] = i;
+            combinations(n, table, size + 1, i + 1, out);
+        }
+    }
+
+    // Permutações distintas (mesas com estratégia repetida não geram ordens iguais)
+    private static void permutations(int[] table, int position, List<int[]> out) {
+        if (position == table.length) {
+            out.add(table.clone());
+            return;
+        }
+        for (int i = position; i < table.length; i++) {
+            boolean repeated = false;
+            for (int j = position; j < i; j++) {
+                if (table[j] == table[i]) repeated = true;
+            }
+            if (repeated) continue;
+            swap(table, position, i);
+            permutations(table, position + 1, out);
+            swap(table, position, i);
+        }
+    }
+
+    private static void swap(int[] table, int i, int j) {
+        int swap = table[i];
+        table[i] = table[j];
+        table[j] = swap;
+    }
+
+    @Override
+    protected Standings compute() {
+        if (count <= LEAF_DEALS) {
+            Standings standings = new Standings(strategies);
+            new Table(set, strategies, seatings).run(masterSeed, firstDeal, count, standings);
+            return standings;
+        }
+        long half = count / 2;
+        Tournament left = new Tournament(set, strategies, seatings, masterSeed, firstDeal, half);
+        Tournament right = new Tournament(set, strategies, seatings, masterSeed, firstDeal + half, count - half);
+        left.fork();
+        Standings standings = right.compute();
+        standings.merge(left.join());
+        return standings;
+    }
+
+    // Mesa de uma folha: distribui com HeadlessSimulator e joga cada ordem de assento sem criar objetos
+    static final class Table {
+        private final Strategy[] strategies;
+        private final int[][] seatings;
+        private final HeadlessSimulator dealer;
+        private final GameState state;
+        private final SeatView view;
+        private final long[][] dealt = new long[PLAYERS][];
+        private final int[] moves = new int[GameState.MAX_MOVES];
+        private final int[] dealWins;
+        private final int[] dealEntries;
+
+        Table(DominoSet set, Strategy[] strategies, int[][] seatings) {
+            this.strategies = strategies;
+            this.seatings = seatings;
+            this.dealer = new HeadlessSimulator(set);
+            this.state = GameState.forSet(set);
+            this.view = new SeatView(set);
+            this.dealWins = new int[strategies.length];
+            this.dealEntries = new int[strategies.length];
+            for (int seat = 0; seat < PLAYERS; seat++) {
+                dealt[seat] = TileSet.empty();
+            }
+        }
+
+        void run(long masterSeed, long firstDeal, long count, Standings standings) {
+            for (long deal = firstDeal; deal < firstDeal + count; deal++) {
+                dealer.deal(HeadlessSimulator.gameSeed(masterSeed, deal));
+                for (int seat = 0; seat < PLAYERS; seat++) {
+                    for (int w = 0; w < TileSet.WORDS; w++) {
+                        dealt[seat][w] = dealer.getState().handWord(seat, w);
+                    }
+                }
+                Arrays.fill(dealWins, 0);
+                Arrays.fill(dealEntries, 0);
+                for (int[] seating : seatings) {
+                    int winner = play(seating);
+                    for (int seat = 0; seat < PLAYERS; seat++) {
+                        dealEntries[seating[seat]]++;
+                    }
+                    if (winner >= 0) {
+                        dealWins[seating[winner]]++;
+                    } else {
+                        standings.draws++;
+                    }
+                }
+                standings.recordDeal(dealWins, dealEntries, seatings.length);
+            }
+        }
+
+        // Joga a distribuição atual com seating[seat] em cada lugar; o lugar 0 começa
+        private int play(int[] seating) {
+            for (int seat = 0; seat < PLAYERS; seat++) {
+                state.setHand(seat, dealt[seat]);
+            }
+            state.reset(0);
+            view.reset(state);
+            while (true) {
+                int seat = state.turn();
+                int count = state.legalMoves(moves);
+                int move = moves[0] == GameState.PASS ? GameState.PASS : strategies[seating[seat]].choose(view, moves, count);
+                view.record(move);
+                state.apply(move);
+                if (move == GameState.PASS) {
+                    if (state.isBlocked()) {
+                        return state.lowestPipSeat();
+                    }
+                } else if (state.isHandEmpty(seat)) {
+                    return seat;
+                }
+            }
+        }
+    }
+
+    // Vitórias por estratégia. O intervalo de confiança trata cada distribuição como uma amostra (a
+    // fração de vitórias da estratégia nas ordens de assento daquela mão), já que as partidas da
+    // mesma distribuição não são independentes entre si
+    static final class Standings {
+        private final Strategy[] strategies;
+        private final long[] wins;
+        private final long[] entries; // Lugares ocupados pela estratégia
+        private final double[] sum;
+        private final double[] sumSquares;
+        private long deals;
+        private long games;
+        private long draws; // Jogos fechados com empate na contagem de pontos
+
+        Standings(Strategy[] strategies) {
+            this.strategies = strategies;
+            this.wins = new long[strategies.length];
+            this.entries = new long[strategies.length];
+            this.sum = new double[strategies.length];
+            this.sumSquares = new double[strategies.length];
+        }
+
+        void recordDeal(int[] dealWins, int[] dealEntries, int dealGames) {
+            deals++;
+            games += dealGames;
+            for (int i = 0; i < strategies.length; i++) {
+                wins[i] += dealWins[i];
+                entries[i] += dealEntries[i];
+                double rate = (double) dealWins[i] / dealEntries[i];
+                sum[i] += rate;
+                sumSquares[i] += rate * rate;
+            }
+        }
+
+        void merge(Standings other) {
+            for (int i = 0; i < strategies.length; i++) {
+                wins[i] += other.wins[i];
+                entries[i] += other.entries[i];
+                sum[i] += other.sum[i];
+                sumSquares[i] += other.sumSquares[i];
+            }
+            deals += other.deals;
+            games += other.games;
+            draws += other.draws;
+        }
+
+        long getDeals() {
+            return deals;
+        }
+
+        long getGames() {
+            return games;
+        }
+
+        // Vitórias por lugar ocupado; com quatro lugares, o acaso dá 25%
+        double getWinRate(int strategy) {
+            return entries[strategy] == 0 ? 0 : (double) wins[strategy] / entries[strategy];
+        }
+
+        // Meia largura do intervalo de 95% da taxa de vitórias
+        double getMargin(int strategy) {
+            if (deals < 2) {
+                return Double.NaN;
+            }
+            double mean = sum[strategy] / deals;
+            double variance = Math.max(0, (sumSquares[strategy] - deals * mean * mean) / (deals - 1));
+            return 1.96 * Math.sqrt(variance / deals);
+        }
+
+        String format() {
+            Integer[] order = new Integer[strategies.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(getWinRate(b), getWinRate(a)));
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Distribuições: %d, partidas: %d%n", deals, games));
+            for (int i : order) {
+                double rate = getWinRate(i);
+                double margin = getMargin(i);
+                sb.append(String.format("%-12s %6.2f%% ± %.2f%% (IC 95%%: %.2f%% a %.2f%%), %d vitórias em %d lugares%n",
+                        strategies[i].name(), rate * 100, margin * 100, (rate - margin) * 100, (rate + margin) * 100,
+                        wins[i], entries[i]));
+            }
+            sb.append(String.format("Empates: %d", draws));
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Transcrição de uma partida ao vivo, no mesmo vocabulário digitado no console:
+//   # comentário
+//   conjunto: duplo-nove    (opcional; duplo-seis se ausente)
+//   jogador: Ana            (uma linha por jogador, na ordem da mesa)
+//   principal: 1            (quem é você, de 1 a 4)
+//   mao: 6/6 1/2 3/4 ...    (as pedras do principal: 7 no duplo-seis)
+//   inicia: 2
+//   jogadas: 6/6 p 6/3 5/3 E ...   (x/y, 'p' para passe, E/D logo após uma pedra que encaixa nos dois lados)
+//   resultado: Beto         (quem bateu, ou "fechado"; opcional)
+// Pode haver várias linhas de jogadas; elas são lidas em sequência.
+final class Transcript {
+    static final String EXTENSION = ".dom";
+    static final String BLOCKED = "fechado";
+    private static final int MOVES_PER_LINE = 16;
+
+    DominoSet set = DominoSet.DOUBLE_SIX;
+    final List<String> players = new ArrayList<>();
+    final List<DominoTile> hand = new ArrayList<>();
+    final List<String> moves = new ArrayList<>();
+    int principal = -1;
+    int starter = -1;
+    String result; // null se a partida não terminou ou o resultado não foi registrado
+
+    // Lança IllegalArgumentException se alguma linha não seguir o formato
+    static Transcript parse(BufferedReader reader) throws IOException {
+        Transcript transcript = new Transcript();
+        String line;
+        int number = 0;
+        while ((line = reader.readLine()) != null) {
+            number++;
+            transcript.accept(line, number);
+        }
+        transcript.validate();
+        return transcript;
+    }
+
+    // Lê uma linha "chave: valor"; linhas vazias e comentários são ignorados
+    void accept(String line, int number) {
+        line = line.trim();
+        if (line.isEmpty() || line.startsWith("#")) {
+            return;
+        }
+        int colon = line.indexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("linha " + number + " sem ':'");
+        }
+        String key = line.substring(0, colon).trim();
+        String value = line.substring(colon + 1).trim();
+        switch (key) {
+            case "conjunto":
+                set = DominoSet.byName(value);
+                break;
+            case "jogador":
+                players.add(value);
+                break;
+            case "principal":
+                principal = parseSeat(value, number);
+                break;
+            case "inicia":
+                starter = parseSeat(value, number);
+                break;
+            case "mao":
+                for (String token : split(value)) {
+                    hand.add(parseTile(token));
+                }
+                break;
+            case "jogadas":
+                moves.addAll(List.of(split(value)));
+                break;
+            case "resultado":
+                result = value;
+                break;
+            default:
+                throw new IllegalArgumentException("linha " + number + ": chave desconhecida '" + key + "'");
+        }
+    }
+
+    // Confere se o cabeçalho basta para começar a partida
+    void validate() {
+        if (players.size() != GameState.PLAYERS) {
+            throw new IllegalArgumentException("são necessários " + GameState.PLAYERS + " jogadores");
+        }
+        if (principal < 0 || principal >= GameState.PLAYERS || starter < 0 || starter >= GameState.PLAYERS) {
+            throw new IllegalArgumentException("principal ou jogador inicial ausente ou fora da mesa");
+        }
+        if (hand.size() != set.handSize) {
+            throw new IllegalArgumentException("a mão do principal precisa de " + set.handSize + " pedras no " + set);
+        }
+        for (DominoTile tile : hand) {
+            if (!set.contains(tile)) {
+                throw new IllegalArgumentException("a pedra " + tile + " não faz parte do " + set);
+            }
+        }
+    }
+
+    // "x/y" -> pedra; IllegalArgumentException se não for uma pedra válida
+    static DominoTile parseTile(String token) {
+        int slash = token.indexOf('/');
+        if (slash < 0) {
+            throw new IllegalArgumentException("pedra inválida '" + token + "'");
+        }
+        try {
+            return DominoTile.of(Integer.parseInt(token.substring(0, slash)), Integer.parseInt(token.substring(slash + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("pedra inválida '" + token + "'");
+        }
+    }
+
+    private static int parseSeat(String value, int number) {
+        try {
+            return Integer.parseInt(value) - 1;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("linha " + number + ": jogador inválido '" + value + "'");
+        }
+    }
+
+    static String[] split(String value) {
+        return value.isEmpty() ? new String[0] : value.split("\\s+");
+    }
+
+    String format() {
+        StringBuilder sb = new StringBuilder("# Transcrição de partida do Botmino\n");
+        if (set != DominoSet.DOUBLE_SIX) {
+            sb.append("conjunto: ").append(set).append('\n');
+        }
+        for (String player : players) {
+            sb.append("jogador: ").append(player).append('\n');
+        }
+        sb.append("principal: ").append(principal + 1).append('\n');
+        sb.append("mao:");
+        for (DominoTile tile : hand) {
+            sb.append(' ').append(tile);
+        }
+        sb.append('\n');
+        sb.append("inicia: ").append(starter + 1).append('\n');
+        for (int i = 0; i < moves.size(); i += MOVES_PER_LINE) {
+            sb.append("jogadas: ").append(String.join(" ", moves.subList(i, Math.min(moves.size(), i + MOVES_PER_LINE))))
+                    .append('\n');
+        }
+        if (result != null) {
+            sb.append("resultado: ").append(result).append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,156 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Reproduz transcrições pelas mesmas regras da partida ao vivo (LiveGame), sem console.
+// Jogadas recusadas são relatadas e puladas, como no console, onde o jogador digitaria de novo.
+// Divergências são contradições com o que foi registrado: um adversário jogando uma pedra que o
+// histórico já descartava (passes e deduções), jogadas depois do fim ou um resultado diferente do anotado.
+final class TranscriptReplayer {
+
+    static final class Report {
+        int transcripts;
+        int malformed;
+        int rejectedMoves;
+        int divergences;
+        long moves;
+        long nanos;
+        final List<String> problems = new ArrayList<>();
+
+        String format() {
+            StringBuilder sb = new StringBuilder();
+            for (String problem : problems) {
+                sb.append(problem).append(System.lineSeparator());
+            }
+            double seconds = nanos / 1e9;
+            sb.append(String.format("Transcrições: %d (%d ilegíveis), jogadas: %d%n", transcripts, malformed, moves));
+            sb.append(String.format("Jogadas recusadas: %d, divergências: %d%n", rejectedMoves, divergences));
+            sb.append(String.format("Tempo: %.3f s (%.0f transcrições por segundo)", seconds,
+                    seconds > 0 ? transcripts / seconds : 0));
+            return sb.toString();
+        }
+    }
+
+    private TranscriptReplayer() {
+    }
+
+    // Aceita um diretório (todas as transcrições .dom, em ordem de nome) ou um único arquivo
+    static Report replay(Path path) throws IOException {
+        Report report = new Report();
+        long start = System.nanoTime();
+        for (Path file : files(path)) {
+            report.transcripts++;
+            Transcript transcript;
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                transcript = Transcript.parse(reader);
+            } catch (IllegalArgumentException e) {
+                report.malformed++;
+                report.problems.add(file.getFileName() + ": transcrição ilegível: " + e.getMessage());
+                continue;
+            }
+            replay(file.getFileName().toString(), transcript, report);
+        }
+        report.nanos = System.nanoTime() - start;
+        return report;
+    }
+
+    // As transcrições de um diretório, em ordem de nome, ou o próprio arquivo
+    static List<Path> files(Path path) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (Files.isDirectory(path)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(path, "*" + Transcript.EXTENSION)) {
+                for (Path file : stream) {
+                    files.add(file);
+                }
+            }
+            Collections.sort(files);
+        } else {
+            files.add(path);
+        }
+        return files;
+    }
+
+    static void replay(String name, Transcript transcript, Report report) {
+        List<Player> players = new ArrayList<>();
+        for (String playerName : transcript.players) {
+            players.add(new Player(playerName));
+        }
+        players.get(transcript.principal).setDominoes(new ArrayList<>(transcript.hand));
+        LiveGame game = new LiveGame(transcript.set, players, transcript.principal, transcript.starter);
+        List<String> moves = transcript.moves;
+        for (int i = 0; i < moves.size(); i++) {
+            String token = moves.get(i);
+            String where = name + ": jogada " + (i + 1) + " (" + token + ")";
+            if (game.isOver()) {
+                report.divergences++;
+                report.problems.add(where + ": jogadas depois do fim da partida");
+                break;
+            }
+            report.moves++;
+            Player player = players.get(game.currentSeat());
+            if (token.equalsIgnoreCase("p")) {
+                game.pass();
+                continue;
+            }
+            DominoTile tile;
+            try {
+                tile = Transcript.parseTile(token);
+            } catch (IllegalArgumentException e) {
+                report.rejectedMoves++;
+                report.problems.add(where + ": " + e.getMessage());
+                continue;
+            }
+            boolean excluded = game.currentSeat() != game.getPrincipal()
+                    && TileSet.contains(player.getNotPossibleTiles(), tile);
+            LiveGame.Outcome outcome = game.play(tile, LiveGame.Side.ANY);
+            if (outcome == LiveGame.Outcome.NEEDS_SIDE) {
+                String side = i + 1 < moves.size() ? moves.get(i + 1) : "";
+                if (side.equalsIgnoreCase("E") || side.equalsIgnoreCase("D")) {
+                    i++;
+                } else {
+                    // Como no console, sem lado válido a pedra vai para a esquerda
+                    report.rejectedMoves++;
+                    report.problems.add(where + ": lado não informado, usando o esquerdo");
+                }
+                outcome = game.play(tile, side.equalsIgnoreCase("D") ? LiveGame.Side.RIGHT : LiveGame.Side.LEFT);
+            }
+            switch (outcome) {
+                case PLAYED:
+                case WON:
+                    if (excluded) {
+                        report.divergences++;
+                        report.problems.add(where + ": pelo histórico, " + player.getName() + " não podia ter essa pedra");
+                    }
+                    break;
+                case NO_FIT:
+                    report.rejectedMoves++;
+                    report.problems.add(where + ": a pedra não encaixa na mesa");
+                    break;
+                case NOT_IN_HAND:
+                    report.rejectedMoves++;
+                    report.problems.add(where + ": a pedra não está na mão do principal");
+                    break;
+                case NOT_AVAILABLE:
+                    report.rejectedMoves++;
+                    report.problems.add(where + ": a pedra já foi jogada ou é do principal");
+                    break;
+                default:
+                    break;
+            }
+        }
+        String result = !game.isOver() ? null
+                : game.getWinner() == GameState.NO_WINNER ? Transcript.BLOCKED
+                : players.get(game.getWinner()).getName();
+        if (transcript.result != null && !transcript.result.equals(result)) {
+            report.divergences++;
+            report.problems.add(name + ": resultado registrado '" + transcript.result + "', reprodução: "
+                    + (result == null ? "partida não terminou" : "'" + result + "'"));
+        }
+    }
+}
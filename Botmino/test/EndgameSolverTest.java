@@ -0,0 +1,79 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+// O solucionador guarda a tabela de transposição entre chamadas, inclusive de jogadores diferentes
+// (a sessão do servidor e a ponderação reaproveitam o mesmo). O resultado não pode depender disso.
+final class EndgameSolverTest {
+    private static final int DEALS = 3000;
+    private static final long SEED = 11;
+    private static final int HAND = 3;
+
+    @Test
+    void reusedSolverMatchesFreshSolver() {
+        HeadlessSimulator simulator = new HeadlessSimulator();
+        EndgameSolver reused = new EndgameSolver();
+        int[] moves = new int[GameState.MAX_MOVES];
+        for (int deal = 0; deal < DEALS; deal++) {
+            GameState position = smallDeal(simulator, deal);
+            reused.solve(position);
+            // A mesma tabela, agora com o próximo jogador na raiz
+            position.legalMoves(moves);
+            position.apply(moves[0]);
+            assertEquals(new EndgameSolver().solve(position).value, reused.solve(position).value, "distribuição " + deal);
+        }
+    }
+
+    @Test
+    void matchesPlainMinimax() {
+        HeadlessSimulator simulator = new HeadlessSimulator();
+        EndgameSolver solver = new EndgameSolver(10); // Tabela pequena, para exercitar as substituições
+        for (int deal = 0; deal < DEALS; deal++) {
+            GameState position = smallDeal(simulator, deal);
+            // Começa do meio da rodada, com pontas e vez variando
+            position.setPosition(deal % 7, deal * 5 % 7, deal % GameState.PLAYERS, 0);
+            int expected = minimax(position, position.turn(), new int[64][GameState.MAX_MOVES], 0);
+            assertEquals(expected, solver.solve(position).value, "distribuição " + deal);
+        }
+    }
+
+    // HAND pedras de cada mão de uma distribuição do duplo-seis, mesa vazia e o jogador 0 na vez
+    private static GameState smallDeal(HeadlessSimulator simulator, int deal) {
+        simulator.deal(HeadlessSimulator.gameSeed(SEED, deal));
+        GameState position = new GameState();
+        for (int seat = 0; seat < GameState.PLAYERS; seat++) {
+            long[] hand = simulator.getState().getHand(seat);
+            long[] kept = TileSet.empty();
+            for (int tile = TileSet.next(hand, 0), k = 0; tile >= 0 && k < HAND; tile = TileSet.next(hand, tile + 1), k++) {
+                TileSet.add(kept, tile);
+            }
+            position.setHand(seat, kept);
+        }
+        position.reset(0);
+        return position;
+    }
+
+    // Minimax sem poda nem tabela, do ponto de vista de root
+    private static int minimax(GameState state, int root, int[][] moves, int ply) {
+        int seat = state.turn();
+        boolean maximizing = seat == root;
+        int best = maximizing ? EndgameSolver.LOSS - 1 : EndgameSolver.WIN + 1;
+        int count = state.legalMoves(moves[ply]);
+        for (int i = 0; i < count; i++) {
+            int move = moves[ply][i];
+            long token = state.apply(move);
+            int value;
+            if (move == GameState.PASS && state.isBlocked()) {
+                int winner = state.lowestPipSeat();
+                value = winner == root ? EndgameSolver.WIN : winner == GameState.NO_WINNER ? EndgameSolver.DRAW : EndgameSolver.LOSS;
+            } else if (move != GameState.PASS && state.isHandEmpty(seat)) {
+                value = seat == root ? EndgameSolver.WIN : EndgameSolver.LOSS;
+            } else {
+                value = minimax(state, root, moves, ply + 1);
+            }
+            state.undo(move, token);
+            best = maximizing ? Math.max(best, value) : Math.min(best, value);
+        }
+        return best;
+    }
+}
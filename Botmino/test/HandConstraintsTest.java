@@ -0,0 +1,99 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+// A propagação tem de chegar exatamente ao que a contagem exata de TileProbabilities diz: uma pedra sai
+// das possíveis de um adversário só quando a chance dele tê-la é 0, e a história é contraditória só
+// quando nenhuma distribuição a respeita.
+final class HandConstraintsTest {
+    private static final int CASES = 100_000;
+
+    @Test
+    void propagationMatchesExactCounts() {
+        SplitMix64 random = new SplitMix64(42);
+        TileProbabilities probabilities = new TileProbabilities();
+        int consistent = 0;
+        for (int c = 0; c < CASES; c++) {
+            // Duplo-seis com três adversários, ou duplo-nove com o monte das que dormem como quarto
+            DominoSet set = random.nextInt(2) == 0 ? DominoSet.DOUBLE_SIX : DominoSet.DOUBLE_NINE;
+            int holders = set == DominoSet.DOUBLE_SIX ? 3 : 4;
+            List<Integer> tiles = sample(set, 1 + random.nextInt(Math.min(set.tileCount, 3 * 7) + 1), random);
+            long[] unseen = TileSet.empty();
+            for (int tile : tiles) {
+                TileSet.add(unseen, tile);
+            }
+            int[] sizes = sizes(tiles.size(), holders, random);
+            if (sizes == null) {
+                continue;
+            }
+            long[][] allowed = new long[holders][];
+            for (int p = 0; p < holders; p++) {
+                allowed[p] = TileSet.copy(unseen);
+                if (p == TileProbabilities.OPPONENTS) continue; // Ninguém sabe nada do monte
+                // Passes (um número inteiro some) e deduções avulsas
+                for (int k = random.nextInt(4); k > 0; k--) {
+                    TileSet.removeAll(allowed[p], TileSet.withPip(random.nextInt(set.maxPip + 1)));
+                }
+                for (int tile : tiles) {
+                    if (random.nextInt(8) == 0) TileSet.remove(allowed[p], tile);
+                }
+            }
+            long[][] propagated = new long[holders][];
+            long[][] counted = new long[holders][];
+            for (int p = 0; p < holders; p++) {
+                propagated[p] = TileSet.copy(allowed[p]);
+                counted[p] = TileSet.copy(allowed[p]);
+            }
+
+            double[][] exact = probabilities.compute(unseen, counted, sizes);
+            boolean feasible = HandConstraints.propagate(unseen, propagated, sizes);
+            String description = "caso " + c + ": " + TileSet.format(unseen);
+            if (!feasible) {
+                assertNull(exact, description);
+                continue;
+            }
+            assertNotNull(exact, description);
+            consistent++;
+            for (int p = 0; p < holders; p++) {
+                for (int tile : tiles) {
+                    assertEquals(exact[p][tile] > 0, TileSet.contains(propagated[p], tile),
+                            description + ", jogador " + p + ", pedra " + DominoTile.byOrdinal(tile));
+                }
+            }
+        }
+        // O gerador tem de produzir casos coerentes de sobra, senão o teste não prova nada
+        assertTrue(consistent > CASES / 4, "casos coerentes: " + consistent);
+    }
+
+    // count pedras diferentes do conjunto, em ordem aleatória
+    private static List<Integer> sample(DominoSet set, int count, SplitMix64 random) {
+        List<Integer> all = new ArrayList<>();
+        long[] tiles = set.tiles();
+        for (int tile = TileSet.next(tiles, 0); tile >= 0; tile = TileSet.next(tiles, tile + 1)) {
+            all.add(tile);
+        }
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(all.size() - i);
+            all.set(j, all.set(i, all.get(j)));
+        }
+        return all.subList(0, count);
+    }
+
+    // Mãos que somam total, nenhuma acima de DominoSet.MAX_HAND_SIZE; null se não couber
+    private static int[] sizes(int total, int holders, SplitMix64 random) {
+        int[] sizes = new int[holders];
+        int rest = total;
+        for (int p = 0; p < holders - 1; p++) {
+            sizes[p] = random.nextInt(Math.min(rest, 7) + 1);
+            rest -= sizes[p];
+        }
+        sizes[holders - 1] = rest;
+        return rest > DominoSet.MAX_HAND_SIZE ? null : sizes;
+    }
+}
@@ -0,0 +1,127 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+// Desfazer e refazer cada jogada de partidas inteiras tem de voltar exatamente ao mesmo ponto: estado
+// compacto, pedras não vistas, exclusões, posição das pedras na mão do principal e o registro de
+// eventos, com o SIDE_CHOSEN saindo e voltando junto com a sua jogada.
+final class LiveGameUndoTest {
+    private static final int GAMES = 5000;
+    private static final long SEED = 20240501L;
+
+    @Test
+    void undoThenRedoRestoresEveryPosition() {
+        SplitMix64 random = new SplitMix64(SEED);
+        int[] moves = new int[64];
+        int sideChoices = 0;
+        for (int g = 0; g < GAMES; g++) {
+            // Duplo-nove em uma partida a cada quatro, para ter pedras dormindo e máscaras de mais de uma palavra
+            DominoSet set = g % 4 == 3 ? DominoSet.DOUBLE_NINE : DominoSet.DOUBLE_SIX;
+            HeadlessSimulator simulator = new HeadlessSimulator(set);
+            simulator.deal(HeadlessSimulator.gameSeed(SEED, g));
+            int principal = g % GameState.PLAYERS;
+            int starter = (g / GameState.PLAYERS) % GameState.PLAYERS;
+            // O estado completo, com as quatro mãos, escolhe jogadas legais ao acaso
+            GameState reference = simulator.getState();
+            reference.reset(starter);
+            List<Player> players = new ArrayList<>();
+            for (int seat = 0; seat < GameState.PLAYERS; seat++) {
+                players.add(new Player("J" + (seat + 1)));
+            }
+            players.get(principal).setDominoes(tiles(reference.getHand(principal)));
+            LiveGame game = new LiveGame(set, players, principal, starter);
+            String start = fingerprint(game);
+            String context = "partida " + g;
+
+            int actions = 0;
+            while (!game.isOver()) {
+                int move = moves[random.nextInt(reference.legalMoves(moves))];
+                String before = fingerprint(game);
+                LiveGame.Outcome outcome = apply(game, move);
+                reference.apply(move);
+                assertTrue(outcome != LiveGame.Outcome.NO_FIT && outcome != LiveGame.Outcome.NOT_IN_HAND
+                        && outcome != LiveGame.Outcome.NOT_AVAILABLE, context + ": " + outcome);
+                actions++;
+                String after = fingerprint(game);
+                if (last(game).type == LiveGame.EventType.PLAYED && game.getEvents().size() > 1
+                        && game.getEvents().get(game.getEvents().size() - 2).type == LiveGame.EventType.SIDE_CHOSEN) {
+                    sideChoices++;
+                }
+
+                assertTrue(game.undo(), context);
+                assertEquals(before, fingerprint(game), context + ", desfazendo a ação " + actions);
+                apply(game, move);
+                assertEquals(after, fingerprint(game), context + ", refazendo a ação " + actions);
+            }
+
+            // E de volta ao começo, uma ação por vez
+            for (int i = 0; i < actions; i++) {
+                assertTrue(game.undo(), context);
+            }
+            assertFalse(game.undo(), context);
+            assertEquals(start, fingerprint(game), context + ", desfazendo tudo");
+        }
+        // Sem escolhas de lado o pareamento com SIDE_CHOSEN não seria testado
+        assertTrue(sideChoices > GAMES, "escolhas de lado: " + sideChoices);
+    }
+
+    // Joga move como o console faria: sem lado, e com o lado só se a pedra encaixar nas duas pontas
+    private static LiveGame.Outcome apply(LiveGame game, int move) {
+        if (move == GameState.PASS) {
+            return game.pass();
+        }
+        DominoTile tile = DominoTile.byOrdinal(GameState.tileOf(move));
+        String before = fingerprint(game);
+        LiveGame.Outcome outcome = game.play(tile, LiveGame.Side.ANY);
+        if (outcome == LiveGame.Outcome.NEEDS_SIDE) {
+            // Pedir o lado não deixa rastro
+            assertEquals(before, fingerprint(game));
+            outcome = game.play(tile, GameState.isRight(move) ? LiveGame.Side.RIGHT : LiveGame.Side.LEFT);
+        }
+        return outcome;
+    }
+
+    private static LiveGame.Event last(LiveGame game) {
+        return game.getEvents().get(game.getEvents().size() - 1);
+    }
+
+    private static List<DominoTile> tiles(long[] hand) {
+        List<DominoTile> tiles = new ArrayList<>();
+        for (int tile = TileSet.next(hand, 0); tile >= 0; tile = TileSet.next(hand, tile + 1)) {
+            tiles.add(DominoTile.byOrdinal(tile));
+        }
+        return tiles;
+    }
+
+    // Tudo o que undo tem de restaurar, numa string comparável
+    private static String fingerprint(LiveGame game) {
+        GameState state = game.getState();
+        StringBuilder sb = new StringBuilder();
+        sb.append("pontas ").append(state.end1()).append('/').append(state.end2())
+                .append(", vez ").append(state.turn()).append(", passes ").append(state.passes());
+        for (int seat = 0; seat < GameState.PLAYERS; seat++) {
+            sb.append(", mão ").append(Arrays.toString(state.getHand(seat)));
+        }
+        sb.append("\nmesa ").append(game.getTable().format())
+                .append("\nnão vistas ").append(TileSet.format(game.getUnseen()))
+                .append("\nfim ").append(game.isOver()).append(' ').append(game.getWinner());
+        for (Player player : game.getPlayers()) {
+            sb.append('\n').append(player.getName()).append(' ').append(player.getDominoes())
+                    .append(' ').append(player.getHistory()).append(' ').append(player.getPlayCount())
+                    .append(" exclusões ").append(TileSet.format(player.getNotPossibleTiles()));
+        }
+        sb.append("\neventos");
+        for (LiveGame.Event event : game.getEvents()) {
+            sb.append(' ').append(event.type).append(':').append(event.seat).append(':').append(event.tile)
+                    .append(':').append(event.left).append(':').append(event.stateToken)
+                    .append(':').append(event.handIndex);
+        }
+        return sb.append("\njogadas ").append(game.moveTokens()).toString();
+    }
+}
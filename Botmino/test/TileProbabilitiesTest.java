@@ -0,0 +1,107 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+// A programação dinâmica por classes de exclusão tem de dar as mesmas chances que contar, uma a uma,
+// todas as distribuições das pedras não vistas. Posições pequenas o bastante para enumerar, com três
+// adversários ou com o monte das que dormem como quarto.
+final class TileProbabilitiesTest {
+    private static final int POSITIONS = 3000;
+    private static final int MAX_UNSEEN = 12;
+    private static final double TOLERANCE = 1e-9;
+
+    @Test
+    void matchesBruteForceEnumeration() {
+        SplitMix64 random = new SplitMix64(7);
+        TileProbabilities probabilities = new TileProbabilities();
+        int consistent = 0;
+        for (int position = 0; position < POSITIONS; position++) {
+            int count = 2 + random.nextInt(MAX_UNSEEN - 1);
+            int[] tiles = new int[count];
+            long[] unseen = TileSet.empty();
+            for (int i = 0; i < count; ) {
+                int tile = random.nextInt(TileSet.TILE_COUNT);
+                if (!TileSet.contains(unseen, tile)) {
+                    TileSet.add(unseen, tile);
+                    tiles[i++] = tile;
+                }
+            }
+            int holders = random.nextInt(2) == 0 ? TileProbabilities.OPPONENTS : TileProbabilities.HOLDERS;
+            int[] sizes = new int[holders];
+            int rest = count;
+            for (int p = 0; p < holders - 1; p++) {
+                sizes[p] = random.nextInt(Math.min(rest, 5) + 1);
+                rest -= sizes[p];
+            }
+            sizes[holders - 1] = rest;
+            long[][] allowed = new long[holders][];
+            for (int p = 0; p < holders; p++) {
+                allowed[p] = TileSet.copy(unseen);
+                if (p == TileProbabilities.OPPONENTS) continue; // O monte pode ter qualquer pedra
+                for (int tile : tiles) {
+                    if (random.nextInt(3) == 0) TileSet.remove(allowed[p], tile);
+                }
+            }
+
+            Enumeration expected = new Enumeration(tiles, allowed, sizes);
+            double[][] actual = probabilities.compute(unseen, allowed, sizes);
+            String context = "posição " + position + ": " + TileSet.format(unseen);
+            if (expected.total == 0) {
+                assertNull(actual, context);
+                continue;
+            }
+            assertNotNull(actual, context);
+            consistent++;
+            for (int p = 0; p < holders; p++) {
+                for (int tile : tiles) {
+                    assertEquals(expected.counts[p][tile] / expected.total, actual[p][tile], TOLERANCE,
+                            context + ", jogador " + p + ", pedra " + DominoTile.byOrdinal(tile));
+                }
+            }
+        }
+        assertTrue(consistent > POSITIONS / 4, "posições coerentes: " + consistent);
+    }
+
+    // Conta as distribuições pedra a pedra: cada uma vai para quem pode tê-la e ainda tem lugar na mão
+    private static final class Enumeration {
+        private final int[] tiles;
+        private final long[][] allowed;
+        private final int[] sizes;
+        private final int[] received;
+        private final int[] holderOf;
+        final double[][] counts;
+        double total;
+
+        Enumeration(int[] tiles, long[][] allowed, int[] sizes) {
+            this.tiles = tiles;
+            this.allowed = allowed;
+            this.sizes = sizes;
+            received = new int[sizes.length];
+            holderOf = new int[tiles.length];
+            counts = new double[sizes.length][TileSet.TILE_COUNT];
+            deal(0);
+        }
+
+        private void deal(int i) {
+            if (i == tiles.length) {
+                // Os tamanhos somam o número de pedras, então todas as mãos estão completas
+                total++;
+                for (int k = 0; k < tiles.length; k++) {
+                    counts[holderOf[k]][tiles[k]]++;
+                }
+                return;
+            }
+            for (int p = 0; p < sizes.length; p++) {
+                if (received[p] < sizes[p] && TileSet.contains(allowed[p], tiles[i])) {
+                    received[p]++;
+                    holderOf[i] = p;
+                    deal(i + 1);
+                    received[p]--;
+                }
+            }
+        }
+    }
+}